@@ -18,15 +18,34 @@ set -e
 # -XX:+ExplicitGCInvokesConcurrent: System.gc() läuft parallel
 # -XX:+ExitOnOutOfMemoryError: JVM beendet bei OOM (Kubernetes kann neustarten)
 
+# AOT-Cache (JDK 25, JEP 483/514/515):
+# Beim Image-Build startet "entrypoint.sh --training" einen Trainingslauf gegen einen lokalen Eureka-Stub
+# und schreibt mit -XX:AOTCacheOutput den Cache nach /app/app.aot. Im Betrieb wird er mit -XX:AOTCache geladen.
+# Der Cache passt nur zu identischer JVM, identischem Classpath (/app/app.jar) und denselben GC-Optionen,
+# deshalb nutzen Training und Betrieb dieses Skript. AOT_CACHE=off startet ohne Cache (Vergleichsmessung).
+# Der Trainingslauf startet statt Application die Main-Klasse TrainingRun (nur im mit -Ptraining gebauten Jar),
+# mit demselben Classpath wie der Betrieb ("-cp /app/app.jar" entspricht "-jar /app/app.jar").
+AOT_CACHE_FILE=/app/app.aot
+AOT_OPTS=""
+LAUNCH="-jar /app/app.jar"
+if [ "$1" = "--training" ]; then
+  shift
+  AOT_OPTS="-XX:AOTCacheOutput=$AOT_CACHE_FILE"
+  LAUNCH="-cp /app/app.jar com.example.eurekaclient.training.TrainingRun"
+elif [ "${AOT_CACHE:-on}" != "off" ] && [ -f "$AOT_CACHE_FILE" ]; then
+  AOT_OPTS="-XX:AOTCache=$AOT_CACHE_FILE"
+fi
+
 exec java \
   -Djava.security.egd=file:/dev/./urandom \
   -Dspring.aot.enabled=true \
+  $AOT_OPTS \
   -XX:MaxRAMPercentage=50 \
   -XX:InitialRAMPercentage=30 \
   -XX:+UseG1GC \
   -XX:MaxGCPauseMillis=200 \
   -XX:+ExplicitGCInvokesConcurrent \
   -XX:+ExitOnOutOfMemoryError \
-  org.springframework.boot.loader.launch.JarLauncher \
-  --spring.config.location=file:/app/config/application.properties
-  
\ No newline at end of file
+  $LAUNCH \
+  --spring.config.location=file:/app/config/application.properties \
+  "$@"
@@ -0,0 +1,73 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming-Import der services.json in einen leeren Store, je Aufruf mit frischem {@link StartupService}.
+ * Mit {@code -prof gc} zeigt {@code gc.alloc.rate.norm} die Allokation pro Import.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"1000"})
+    int batchSize;
+
+    private ByteArrayResource json;
+    private ServiceInstanceStore store;
+    private StartupService startupService;
+
+    @Setup(Level.Trial)
+    public void createJson() {
+        StringBuilder out = new StringBuilder(size * 220).append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("""
+                    {"serviceName":"SERVICE-%d","hostName":"host-%d","ipAddr":"10.0.%d.%d","httpPort":%d,\
+                    "securePort":8443,"sslPreferred":false,"status":"UP","dataCenterInfoName":"MyOwn"}"""
+                    .formatted(i, i, i / 250 % 250, i % 250, 8080 + (i % 1000)));
+        }
+        json = new ByteArrayResource(out.append(']').toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Setup(Level.Invocation)
+    public void freshStore() {
+        store = new ServiceInstanceStore();
+        startupService = new StartupService(store, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(startupService, "storeJsonResource", json);
+        ReflectionTestUtils.setField(startupService, "batchSize", batchSize);
+    }
+
+    @Benchmark
+    public int importAll() throws IOException {
+        startupService.loadAndImportServices();
+        return store.size();
+    }
+}
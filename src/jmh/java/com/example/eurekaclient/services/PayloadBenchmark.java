@@ -0,0 +1,158 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registrierungs-Payload und URLs: bisherige format()-Variante gegen den Streaming-Writer
+ * und gegen den gecachten {@link InstanceDescriptor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadBenchmark {
+
+    private static final String EUREKA_URL = "http://localhost:8761/eureka/apps/";
+    private static final String ESCAPE_INPUT = "payment-host-01.cluster.local & <team \"billing\">";
+
+    private EurekaClientService service;
+    private ServiceInstance instance;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RestClient restClient = RestClient.create();
+        service = new EurekaClientService(restClient,
+                TestData.peerPool(restClient, EUREKA_URL, new SimpleMeterRegistry()),
+                new EurekaCallMetrics(new SimpleMeterRegistry(), new long[]{100, 1000}, false, 0));
+        instance = ServiceInstance.builder()
+                .id(1L)
+                .serviceName("payment-service")
+                .hostName("payment-host-01.cluster.local")
+                .ipAddr("10.0.12.42")
+                .httpPort(8080)
+                .securePort(8443)
+                .sslPreferred(false)
+                .status("UP")
+                .dataCenterInfoName("MyOwn")
+                .build();
+        service.descriptor(instance);
+    }
+
+    @Benchmark
+    public byte[] legacyPayload() {
+        return LegacyPayload.build(instance).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] streamingPayload() {
+        return service.buildXmlPayload(instance);
+    }
+
+    @Benchmark
+    public String legacyEscape() {
+        return LegacyPayload.escapeXml(ESCAPE_INPUT);
+    }
+
+    @Benchmark
+    public String streamingEscape() {
+        return EurekaXmlWriter.escape(ESCAPE_INPUT);
+    }
+
+    @Benchmark
+    public String generateInstanceId() {
+        return service.generateInstanceId(instance);
+    }
+
+    @Benchmark
+    public String legacyInstanceUrl() {
+        String serviceName = service.generateServiceName(instance);
+        return EUREKA_URL + serviceName + "/" + service.generateInstanceId(instance);
+    }
+
+    @Benchmark
+    public String cachedInstanceUrl() {
+        return EUREKA_URL + service.descriptor(instance).instancePath();
+    }
+
+    /**
+     * Unveränderte Kopie der bisherigen Implementierung als Vergleichsbasis.
+     */
+    static final class LegacyPayload {
+
+        static String build(ServiceInstance instance) {
+            boolean ssl = instance.isSslPreferred();
+            String protocol = ssl ? "https" : "http";
+            int port = ssl ? instance.getSecurePort() : instance.getHttpPort();
+
+            String instanceId  = escapeXml("%s:%s:%d".formatted(instance.getHostName(), instance.getServiceName(), port));
+            String hostName    = escapeXml(instance.getHostName());
+            String serviceName = escapeXml(instance.getServiceName());
+            String serviceNameLower = escapeXml(instance.getServiceName() != null ? instance.getServiceName().toLowerCase() : "");
+            String ipAddr      = escapeXml(instance.getIpAddr());
+            String status      = escapeXml(instance.getStatus());
+            String dataCenterInfoName = escapeXml(instance.getDataCenterInfoName() != null ? instance.getDataCenterInfoName() : "MyOwn");
+
+            return """
+                    <instance>
+                      <instanceId>%s</instanceId>
+                      <hostName>%s</hostName>
+                      <app>%s</app>
+                      <ipAddr>%s</ipAddr>
+                      <vipAddress>%s</vipAddress>
+                      <secureVipAddress>%s</secureVipAddress>
+                      <status>%s</status>
+                      <port enabled="%s">%d</port>
+                      <securePort enabled="%s">%d</securePort>
+                      <homePageUrl>%s://%s:%d/</homePageUrl>
+                      <statusPageUrl>%s://%s:%d/actuator/info</statusPageUrl>
+                      <healthCheckUrl>%s://%s:%d/actuator/health</healthCheckUrl>
+                      <dataCenterInfo class="com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo">
+                        <name>%s</name>
+                      </dataCenterInfo>
+                    </instance>
+                    """.formatted(
+                    instanceId,
+                    hostName,
+                    serviceName,
+                    ipAddr,
+                    serviceNameLower,
+                    serviceNameLower,
+                    status,
+                    ssl ? "false" : "true",
+                    instance.getHttpPort(),
+                    ssl ? "true" : "false",
+                    instance.getSecurePort(),
+                    protocol, hostName, port,
+                    protocol, hostName, port,
+                    protocol, hostName, port,
+                    dataCenterInfoName);
+        }
+
+        static String escapeXml(String value) {
+            if (value == null) return "";
+            return value
+                    .replace("&", "&amp;")
+                    .replace("<", "&lt;")
+                    .replace(">", "&gt;")
+                    .replace("\"", "&quot;")
+                    .replace("'", "&apos;");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.eurekaclient.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Einplanen und Abbrechen von periodischen Heartbeats: Timing Wheel gegen ScheduledThreadPoolExecutor.
+ * Eine Operation entspricht dem Einplanen und anschließenden Abbrechen aller Instanzen. Das Rad läuft dabei ohne
+ * eigenen Worker und wird innerhalb der Operation weitergedreht, damit Einsortieren in die Buckets und Aushängen
+ * beim Abbrechen mitgemessen werden – wie die Heap-Operationen auf der Executor-Seite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    private static final Runnable NOOP = () -> { };
+
+    @Param({"1000", "10000", "100000"})
+    int instances;
+
+    private String[] keys;
+    private long[] phases;
+    private HashedTimingWheel wheel;
+    private ScheduledThreadPoolExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = new String[instances];
+        for (int i = 0; i < instances; i++) {
+            keys[i] = "host-" + i + ":SERVICE-" + (i % 500) + ":8080";
+        }
+        wheel = HashedTimingWheel.withoutWorker(100, TimeUnit.MILLISECONDS, 512, Runnable::run);
+        phases = new long[instances];
+        for (int i = 0; i < instances; i++) {
+            phases[i] = wheel.phaseDelay(keys[i], 20_000, TimeUnit.MILLISECONDS);
+        }
+        executor = new ScheduledThreadPoolExecutor(5);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.stop();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void wheelScheduleAndCancel(Blackhole bh) {
+        HashedTimingWheel.Timeout[] timeouts = new HashedTimingWheel.Timeout[instances];
+        for (int i = 0; i < instances; i++) {
+            timeouts[i] = wheel.scheduleAtFixedRate(NOOP, phases[i], 20_000, TimeUnit.MILLISECONDS);
+        }
+        // Tick übernimmt alle neuen Timeouts in ihre Buckets
+        wheel.advance();
+        for (HashedTimingWheel.Timeout timeout : timeouts) {
+            timeout.cancel();
+        }
+        // Tick hängt die abgebrochenen Timeouts wieder aus
+        wheel.advance();
+        bh.consume(timeouts);
+    }
+
+    @Benchmark
+    public void executorScheduleAndCancel(Blackhole bh) {
+        ScheduledFuture<?>[] futures = new ScheduledFuture<?>[instances];
+        for (int i = 0; i < instances; i++) {
+            futures[i] = executor.scheduleAtFixedRate(NOOP, phases[i], 20_000, TimeUnit.MILLISECONDS);
+        }
+        for (ScheduledFuture<?> future : futures) {
+            future.cancel(false);
+        }
+        bh.consume(futures);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.eurekaclient.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import und Lookups im {@link ServiceInstanceStore} bei wachsender Größe.
+ * Die lineare Suche der bisherigen CopyOnWriteArrayList dient als Vergleich für die Lookups.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StoreBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private List<ServiceInstance> instances;
+    private ServiceInstanceStore store;
+    private List<ServiceInstance> legacy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        instances = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            instances.add(newInstance(i));
+        }
+        store = new ServiceInstanceStore();
+        instances.forEach(store::save);
+        legacy = new CopyOnWriteArrayList<>(instances);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public ServiceInstanceStore importAll() {
+        ServiceInstanceStore fresh = new ServiceInstanceStore();
+        for (int i = 0; i < size; i++) {
+            ServiceInstance imported = newInstance(i);
+            ServiceInstance existing = fresh.findByServiceNameAndHostNameAndHttpPort(
+                    imported.getServiceName(), imported.getHostName(), imported.getHttpPort());
+            fresh.save(existing != null ? existing : imported);
+        }
+        return fresh;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ServiceInstance findByServiceName() {
+        return store.findByServiceName(randomName());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ServiceInstance findByEndpoint() {
+        int i = ThreadLocalRandom.current().nextInt(size);
+        return store.findByServiceNameAndHostNameAndHttpPort("service-" + i, "host-" + i, 8080 + (i % 1000));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ServiceInstance legacyFindByServiceName() {
+        String name = randomName();
+        return legacy.stream()
+                .filter(i -> i.getServiceName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void saveExisting() {
+        store.save(instances.get(ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    private String randomName() {
+        return "SERVICE-" + ThreadLocalRandom.current().nextInt(size);
+    }
+
+    private static ServiceInstance newInstance(int i) {
+        return ServiceInstance.builder()
+                .serviceName("SERVICE-" + i)
+                .hostName("host-" + i)
+                .ipAddr("10.0." + (i / 250 % 250) + "." + (i % 250))
+                .httpPort(8080 + (i % 1000))
+                .securePort(8443)
+                .status("UP")
+                .dataCenterInfoName("MyOwn")
+                .build();
+    }
+}
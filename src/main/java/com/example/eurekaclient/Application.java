@@ -1,5 +1,6 @@
 package com.example.eurekaclient;
 
+import com.example.eurekaclient.config.EurekaClientRuntimeHints;
 import com.example.eurekaclient.services.LifecycleManager;
 import com.example.eurekaclient.services.ServiceInstanceStore;
 import jakarta.annotation.PreDestroy;
@@ -7,9 +8,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @Slf4j
 @SpringBootApplication
+@ImportRuntimeHints(EurekaClientRuntimeHints.class)
 @RequiredArgsConstructor
 public class Application {
 
@@ -0,0 +1,55 @@
+package com.example.eurekaclient.actuator;
+
+import com.example.eurekaclient.services.LifecycleJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Letzte Lifecycle-Ereignisse aus dem {@link LifecycleJournal}, insgesamt oder für eine Instanz.
+ */
+@Component
+@Endpoint(id = "journal")
+public class JournalEndpoint {
+
+    private final LifecycleJournal journal;
+
+    @Value("${lifecycle.journal.default-limit:100}")
+    private int defaultLimit;
+
+    public JournalEndpoint(LifecycleJournal journal) {
+        this.journal = journal;
+    }
+
+    @ReadOperation
+    public Map<String, Object> recent(@OptionalParameter Integer limit) {
+        return response(journal.recent(effectiveLimit(limit)));
+    }
+
+    @ReadOperation
+    public Map<String, Object> instance(@Selector long instanceId, @OptionalParameter Integer limit) {
+        Map<String, Object> response = response(journal.forInstance(instanceId, effectiveLimit(limit)));
+        response.put("instanceId", instanceId);
+        return response;
+    }
+
+    private int effectiveLimit(Integer limit) {
+        int requested = limit != null && limit > 0 ? limit : defaultLimit;
+        return Math.min(requested, journal.capacity());
+    }
+
+    private Map<String, Object> response(List<LifecycleJournal.Event> events) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("capacity", journal.capacity());
+        response.put("count", events.size());
+        response.put("events", events.stream().map(LifecycleJournal.Event::toMap).toList());
+        return response;
+    }
+}
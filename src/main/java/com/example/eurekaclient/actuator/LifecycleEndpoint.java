@@ -0,0 +1,27 @@
+package com.example.eurekaclient.actuator;
+
+import com.example.eurekaclient.services.LifecycleManager;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Zustand aller Lifecycles: Instanzen pro Zustand, laufende Eureka-Aufrufe, eingeplante und geparkte Retries.
+ */
+@Component
+@Endpoint(id = "lifecycle")
+public class LifecycleEndpoint {
+
+    private final LifecycleManager lifecycleManager;
+
+    public LifecycleEndpoint(LifecycleManager lifecycleManager) {
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> lifecycle() {
+        return lifecycleManager.getStats().toMap();
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.eurekaclient.actuator;
 
+import com.example.eurekaclient.services.IncrementalRefreshService;
 import com.example.eurekaclient.services.LifecycleManager;
 import com.example.eurekaclient.services.ServiceInstanceStore;
 import com.example.eurekaclient.services.StartupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Endpoint(id = "refresh")
@@ -20,47 +27,95 @@ public class RefreshEndpoint {
     private final LifecycleManager lifecycleManager;
     private final ServiceInstanceStore serviceInstanceStore;
     private final StartupService startupService;
+    private final IncrementalRefreshService incrementalRefreshService;
+
+    @Value("${refresh.mode:full}")
+    private String defaultMode;
 
     public RefreshEndpoint(LifecycleManager lifecycleManager,
                            ServiceInstanceStore serviceInstanceStore,
-                           StartupService startupService) {
+                           StartupService startupService,
+                           IncrementalRefreshService incrementalRefreshService) {
         this.lifecycleManager = lifecycleManager;
         this.serviceInstanceStore = serviceInstanceStore;
         this.startupService = startupService;
+        this.incrementalRefreshService = incrementalRefreshService;
     }
 
     @WriteOperation
-    public Map<String, Object> refresh() {
-        log.info("[Refresh] Starte Refresh aller Service-Instanzen...");
+    public Map<String, Object> refresh(@OptionalParameter String mode) {
+        String effectiveMode = mode != null && !mode.isBlank() ? mode.trim() : defaultMode;
 
-        try {
-            int stoppedCount = lifecycleManager.getRunningInstances().size();
-            lifecycleManager.stopAllRunning();
-            log.info("[Refresh] {} Instanzen gestoppt", stoppedCount);
+        if ("diff".equalsIgnoreCase(effectiveMode)) {
+            return diffRefresh();
+        }
+        return fullRefresh();
+    }
 
-            serviceInstanceStore.clear();
-            log.info("[Refresh] ServiceInstanceStore geleert");
+    private Map<String, Object> diffRefresh() {
+        log.info("[Refresh] Starte inkrementellen Refresh...");
 
-            startupService.loadAndImportServices();
-            int loadedCount = serviceInstanceStore.getInstances().size();
-            log.info("[Refresh] {} Instanzen aus services.json geladen", loadedCount);
+        try {
+            var result = incrementalRefreshService.apply(startupService.readServices());
 
-            startupService.startAllLifecycles(lifecycleManager);
-            int startedCount = lifecycleManager.getRunningInstances().size();
-            log.info("[Refresh] {} Instanzen gestartet", startedCount);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", "success");
+            response.put("mode", "diff");
+            response.putAll(result.toMap());
+            return response;
 
+        } catch (Exception e) {
+            log.error("[Refresh] Fehler beim inkrementellen Refresh: {}", e.getMessage(), e);
             return Map.of(
-                    "status", "success",
-                    "stopped", stoppedCount,
-                    "loaded", loadedCount,
-                    "started", startedCount
+                    "status", "error",
+                    "mode", "diff",
+                    "message", String.valueOf(e.getMessage())
             );
+        }
+    }
+
+    private Map<String, Object> fullRefresh() {
+        log.info("[Refresh] Starte Refresh aller Service-Instanzen...");
+        long start = System.nanoTime();
+
+        try {
+            // Stop, Leeren, Import und Start laufen unter demselben Lock wie Diff-Refresh,
+            // Datei-Watcher und Batch, damit niemand den leeren bzw. halb geladenen Store sieht
+            return incrementalRefreshService.exclusive(() -> {
+                int stoppedCount = lifecycleManager.getRunningInstances().size();
+                lifecycleManager.stopAllRunning();
+                log.info("[Refresh] {} Instanzen gestoppt", stoppedCount);
+
+                serviceInstanceStore.clear();
+                log.info("[Refresh] ServiceInstanceStore geleert");
+
+                try {
+                    startupService.loadAndImportServices();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                int loadedCount = serviceInstanceStore.getInstances().size();
+                log.info("[Refresh] {} Instanzen aus services.json geladen", loadedCount);
+
+                startupService.startAllLifecycles(lifecycleManager);
+                int startedCount = lifecycleManager.getRunningInstances().size();
+                log.info("[Refresh] {} Instanzen gestartet", startedCount);
+
+                return Map.<String, Object>of(
+                        "status", "success",
+                        "mode", "full",
+                        "stopped", stoppedCount,
+                        "loaded", loadedCount,
+                        "started", startedCount,
+                        "durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                );
+            });
 
         } catch (Exception e) {
             log.error("[Refresh] Fehler beim Refresh: {}", e.getMessage(), e);
             return Map.of(
                     "status", "error",
-                    "message", e.getMessage()
+                    "message", String.valueOf(e.getMessage())
             );
         }
     }
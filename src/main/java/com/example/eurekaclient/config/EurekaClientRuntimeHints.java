@@ -0,0 +1,59 @@
+package com.example.eurekaclient.config;
+
+import com.example.eurekaclient.actuator.EurekaClientsHealthIndicator;
+import com.example.eurekaclient.actuator.EurekaClientsInfoContributor;
+import com.example.eurekaclient.actuator.JournalEndpoint;
+import com.example.eurekaclient.actuator.LifecycleEndpoint;
+import com.example.eurekaclient.actuator.RefreshEndpoint;
+import com.example.eurekaclient.services.BulkStatusRequest;
+import com.example.eurekaclient.services.BulkStatusResponse;
+import com.example.eurekaclient.services.InstanceBatchRequest;
+import com.example.eurekaclient.services.InstanceBatchResponse;
+import com.example.eurekaclient.services.OperationStatus;
+import com.example.eurekaclient.services.ServiceInstance;
+import com.example.eurekaclient.services.UpdateInstanceRequest;
+import com.example.eurekaclient.web.ServiceInstanceController;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints für das GraalVM-Native-Image ({@code mvn -Pnative}), soweit Spring AOT sie nicht selbst ableitet.
+ * <ul>
+ *     <li>Jackson: {@code StartupService} liest {@link ServiceInstance} über einen eigenen {@code ObjectMapper},
+ *     Thymeleaf greift per SpEL auf die Getter zu.</li>
+ *     <li>Thymeleaf-Template {@code clients.html}.</li>
+ *     <li>Actuator: eigene Endpunkte, Health-Indikator und Info-Contributor werden reflektiv aufgerufen.</li>
+ *     <li>springdoc liest {@code @Operation}, {@code @ApiResponse} und {@code @Schema} zur Laufzeit.</li>
+ * </ul>
+ */
+public class EurekaClientRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ServiceInstance.class, UpdateInstanceRequest.class, BulkStatusRequest.class, BulkStatusResponse.class,
+                InstanceBatchRequest.class, InstanceBatchResponse.class, OperationStatus.class);
+
+        hints.resources().registerPattern("templates/clients.html");
+
+        for (Class<?> type : new Class<?>[]{RefreshEndpoint.class, LifecycleEndpoint.class, JournalEndpoint.class,
+                EurekaClientsHealthIndicator.class, EurekaClientsInfoContributor.class}) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        hints.reflection().registerType(ServiceInstanceController.class, MemberCategory.INVOKE_DECLARED_METHODS);
+        for (Class<?> annotation : new Class<?>[]{Operation.class, ApiResponse.class, ApiResponses.class,
+                Content.class, Schema.class, RequestBody.class, Parameter.class}) {
+            hints.reflection().registerType(annotation, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
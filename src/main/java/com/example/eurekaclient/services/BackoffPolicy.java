@@ -0,0 +1,15 @@
+package com.example.eurekaclient.services;
+
+/**
+ * Wartezeit bis zum nächsten Retry von Registrierung oder Heartbeat.
+ * Eigene Implementierungen ersetzen die Standard-Policy als Spring-Bean.
+ */
+public interface BackoffPolicy {
+
+    /**
+     * @param attempt       Nummer des anstehenden Retries, beginnend bei 1 (Registrierung) bzw. 2 (Heartbeat)
+     * @param previousDelay Wartezeit vor dem vorherigen Versuch in ms, 0 beim ersten Retry
+     * @return Wartezeit in ms
+     */
+    long nextDelayMillis(int attempt, long previousDelay);
+}
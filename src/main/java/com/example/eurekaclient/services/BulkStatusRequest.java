@@ -0,0 +1,43 @@
+package com.example.eurekaclient.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "Request-Body zum Setzen des Eureka-Status mehrerer Service-Instances über den Status-Override.")
+public class BulkStatusRequest {
+
+    @Schema(description = "Namen der betroffenen Services.", example = "[\"payment-service\", \"billing-service\"]")
+    private List<String> serviceNames;
+
+    @Schema(description = "Filter auf den Service-Namen, '*' als Platzhalter, ohne Beachtung der Groß-/Kleinschreibung. " +
+                          "Wird mit serviceNames kombiniert.", example = "PAYMENT-*")
+    private String serviceNamePattern;
+
+    @NotBlank(message = "status ist ein Pflichtfeld")
+    @Pattern(regexp = "(?i)UP|DOWN|STARTING|OUT_OF_SERVICE|UNKNOWN",
+             message = "status muss UP, DOWN, STARTING, OUT_OF_SERVICE oder UNKNOWN sein")
+    @Schema(description = "Ziel-Status. UP entfernt den Override wieder.", example = "OUT_OF_SERVICE",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private String status;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "serviceNames oder serviceNamePattern muss angegeben werden")
+    public boolean isTargetGiven() {
+        return (serviceNames != null && !serviceNames.isEmpty())
+                || (serviceNamePattern != null && !serviceNamePattern.isBlank());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.eurekaclient.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Ergebnis einer Statusänderung mehrerer Service-Instances.")
+public record BulkStatusResponse(
+        @Schema(description = "Gesetzter Ziel-Status.", example = "OUT_OF_SERVICE")
+        String status,
+        @Schema(description = "Anzahl erfolgreich geänderter Instanzen.", example = "498")
+        int succeeded,
+        @Schema(description = "Anzahl nicht geänderter Instanzen (Fehler, nicht laufend oder unbekannt).", example = "2")
+        int failed,
+        @Schema(description = "Gesamtdauer in Millisekunden.", example = "1840")
+        long durationMs,
+        @Schema(description = "Ergebnis pro Instanz.")
+        List<InstanceResult> results
+) {
+
+    @Schema(description = "Ergebnis für eine einzelne Instanz.")
+    public record InstanceResult(
+            @Schema(description = "Name des Services.", example = "payment-service")
+            String serviceName,
+            @Schema(description = "Eureka-Instance-ID, leer bei unbekanntem Service.", example = "payment-host-01:payment-service:8080")
+            String instanceId,
+            @Schema(description = "OK, NOT_FOUND, RETRYABLE_ERROR, FATAL, CIRCUIT_OPEN, NOT_RUNNING oder UNKNOWN_SERVICE.", example = "OK")
+            String outcome
+    ) { }
+}
@@ -0,0 +1,129 @@
+package com.example.eurekaclient.services;
+
+/**
+ * Circuit Breaker für einen Eureka-Peer mit den Zuständen CLOSED, OPEN und HALF_OPEN.
+ * <p>
+ * Bewertet werden die letzten {@code windowSize} Aufrufe: Überschreitet die Fehlerquote oder der Anteil
+ * langsamer Aufrufe die Schwelle, öffnet der Breaker für {@code openMillis}. Danach lässt er
+ * {@code halfOpenCalls} Probe-Aufrufe durch; sind alle erfolgreich, schließt er wieder.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    record Settings(int windowSize, int minCalls, double failureRateThreshold,
+                    long slowCallMillis, double slowRateThreshold, long openMillis, int halfOpenCalls) {
+    }
+
+    private final Settings settings;
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private long openUntilNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(Settings settings) {
+        this.settings = settings;
+        this.window = new byte[settings.windowSize()];
+    }
+
+    State state() {
+        return state;
+    }
+
+    /**
+     * Ob ein Aufruf erlaubt ist, ohne eine Half-Open-Erlaubnis zu verbrauchen.
+     */
+    synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.nanoTime() >= openUntilNanos;
+            case HALF_OPEN -> halfOpenPermits > 0;
+        };
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.nanoTime() < openUntilNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = settings.halfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+        if (halfOpenPermits <= 0) {
+            return false;
+        }
+        halfOpenPermits--;
+        return true;
+    }
+
+    /**
+     * @return der neue Zustand, wenn sich der Zustand geändert hat, sonst {@code null}
+     */
+    synchronized State onResult(boolean success, long nanos) {
+        boolean slow = nanos > settings.slowCallMillis() * 1_000_000L;
+
+        if (state == State.HALF_OPEN) {
+            if (!success || slow) {
+                return open();
+            }
+            if (++halfOpenSuccesses >= settings.halfOpenCalls()) {
+                resetWindow();
+                state = State.CLOSED;
+                return State.CLOSED;
+            }
+            return null;
+        }
+        if (state == State.OPEN) {
+            // Antwort auf einen vor dem Öffnen gestarteten Aufruf
+            return null;
+        }
+
+        record(!success, slow);
+        if (windowCount >= settings.minCalls()
+                && (failures >= settings.failureRateThreshold() * windowCount
+                || slowCalls >= settings.slowRateThreshold() * windowCount)) {
+            return open();
+        }
+        return null;
+    }
+
+    private State open() {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + settings.openMillis() * 1_000_000L;
+        halfOpenPermits = 0;
+        return State.OPEN;
+    }
+
+    private void record(boolean failure, boolean slow) {
+        // Bit 0: Fehler, Bit 1: langsam
+        byte outcome = (byte) ((failure ? 1 : 0) | (slow ? 2 : 0));
+        if (windowCount == window.length) {
+            byte evicted = window[windowIndex];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % window.length;
+        failures += outcome & 1;
+        slowCalls += (outcome >> 1) & 1;
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.eurekaclient.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decorrelated Jitter: {@code min(cap, random(base, previous * 3))}.
+ * Gleichzeitig fehlgeschlagene Instanzen laufen damit schon nach dem ersten Retry auseinander.
+ */
+public final class DecorrelatedJitterBackoff implements BackoffPolicy {
+
+    private final long baseMillis;
+    private final long capMillis;
+
+    public DecorrelatedJitterBackoff(long baseMillis, long capMillis) {
+        this.baseMillis = baseMillis;
+        this.capMillis = capMillis;
+    }
+
+    @Override
+    public long nextDelayMillis(int attempt, long previousDelay) {
+        long upper = Math.max(baseMillis, previousDelay) * 3;
+        long delay = ThreadLocalRandom.current().nextLong(baseMillis, upper + 1);
+        return Math.min(capMillis, delay);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Dauer der Eureka-Aufrufe als Histogramm, getaggt nach Operation, Ergebnisklasse und Eureka-Host.
+ * <p>
+ * {@code eureka_call_duration} misst jeden Request an einen Peer einzeln, ein Failover erzeugt also zwei Messungen.
+ * Die Timer werden pro Host und Kombination einmal angelegt und danach ohne Registry-Lookup wiederverwendet.
+ * <p>
+ * Mit {@code eureka.metrics.per-instance.enabled} kommt {@code eureka_instance_call_duration} mit dem Tag
+ * {@code instance} hinzu – ohne Histogramm und für höchstens {@code per-instance.max} Instanzen gleichzeitig, damit
+ * die Kardinalität begrenzt bleibt. Die Deregistrierung gibt den Platz einer Instanz wieder frei.
+ */
+@Slf4j
+@Component
+public class EurekaCallMetrics {
+
+    public enum Operation { REGISTER, HEARTBEAT, DEREGISTER, FETCH, STATUS }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final EurekaCallResult[] RESULTS = EurekaCallResult.values();
+
+    private final MeterRegistry meterRegistry;
+    private final Duration[] slos;
+    private final Map<String, AtomicReferenceArray<Timer>> callTimers = new ConcurrentHashMap<>();
+
+    private final boolean perInstance;
+    private final int perInstanceMax;
+    private final Map<String, AtomicReferenceArray<Timer>> instanceTimers = new ConcurrentHashMap<>();
+    private final AtomicInteger instanceSlots = new AtomicInteger();
+    private final Counter instanceDroppedCounter;
+
+    public EurekaCallMetrics(MeterRegistry meterRegistry,
+                             @Value("${eureka.metrics.slo-ms:50,100,250,500,1000,2000,5000}") long[] sloMillis,
+                             @Value("${eureka.metrics.per-instance.enabled:false}") boolean perInstance,
+                             @Value("${eureka.metrics.per-instance.max:200}") int perInstanceMax) {
+        this.meterRegistry = meterRegistry;
+        this.slos = Arrays.stream(sloMillis).sorted().mapToObj(Duration::ofMillis).toArray(Duration[]::new);
+        this.perInstance = perInstance;
+        this.perInstanceMax = Math.max(0, perInstanceMax);
+
+        this.instanceDroppedCounter = Counter.builder("eureka_instance_metrics_dropped_total")
+                .description("Messungen ohne Instanz-Tag, weil eureka.metrics.per-instance.max erreicht war")
+                .register(meterRegistry);
+
+        if (perInstance) {
+            log.info("[Metrics] Instanz-Tags aktiv für bis zu {} Instanzen", this.perInstanceMax);
+        }
+    }
+
+    /**
+     * Ein einzelner Request an {@code host}.
+     */
+    void recordCall(Operation operation, String host, EurekaCallResult result, long nanos) {
+        AtomicReferenceArray<Timer> timers = callTimers.computeIfAbsent(host, key -> newSlots());
+        timer(timers, operation, result, () -> Timer.builder("eureka_call_duration")
+                .description("Dauer eines Requests an einen Eureka-Peer")
+                .tag("host", host)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(slos))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gesamtdauer eines Aufrufs einer Instanz inklusive Failover; nur bei aktivierten Instanz-Tags.
+     */
+    void recordInstance(Operation operation, String instanceId, EurekaCallResult result, long nanos) {
+        if (!perInstance || instanceId == null) {
+            return;
+        }
+        AtomicReferenceArray<Timer> timers = instanceTimers.get(instanceId);
+        if (timers == null) {
+            if (!reserveInstanceSlot()) {
+                instanceDroppedCounter.increment();
+                return;
+            }
+            AtomicReferenceArray<Timer> created = newSlots();
+            timers = instanceTimers.putIfAbsent(instanceId, created);
+            if (timers == null) {
+                timers = created;
+            } else {
+                // Ein anderer Thread hat die Instanz gleichzeitig angelegt
+                instanceSlots.decrementAndGet();
+            }
+        }
+        timer(timers, operation, result, () -> Timer.builder("eureka_instance_call_duration")
+                .description("Dauer eines Eureka-Aufrufs einer Instanz inklusive Failover")
+                .tag("instance", instanceId))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Entfernt die Instanz-Timer einer deregistrierten Instanz aus der Registry und gibt ihren Platz frei.
+     */
+    void removeInstance(String instanceId) {
+        if (!perInstance || instanceId == null) {
+            return;
+        }
+        AtomicReferenceArray<Timer> timers = instanceTimers.remove(instanceId);
+        if (timers == null) {
+            return;
+        }
+        instanceSlots.decrementAndGet();
+        for (int i = 0; i < timers.length(); i++) {
+            Timer timer = timers.get(i);
+            if (timer != null) {
+                meterRegistry.remove(timer);
+            }
+        }
+    }
+
+    /**
+     * Reserviert per CAS einen der {@code per-instance.max} Plätze, damit gleichzeitige erste Messungen
+     * die Grenze nicht überschreiten.
+     */
+    private boolean reserveInstanceSlot() {
+        int used;
+        do {
+            used = instanceSlots.get();
+            if (used >= perInstanceMax) {
+                return false;
+            }
+        } while (!instanceSlots.compareAndSet(used, used + 1));
+        return true;
+    }
+
+    /**
+     * Timer werden erst bei der ersten Messung registriert, damit ungenutzte Kombinationen keine
+     * Histogramm-Serien erzeugen.
+     */
+    private Timer timer(AtomicReferenceArray<Timer> timers, Operation operation, EurekaCallResult result,
+                        Supplier<Timer.Builder> builder) {
+        int index = operation.ordinal() * RESULTS.length + result.ordinal();
+        Timer timer = timers.get(index);
+        if (timer == null) {
+            timer = builder.get()
+                    .tag("operation", tagValue(operation))
+                    .tag("outcome", tagValue(result))
+                    .register(meterRegistry);
+            timers.set(index, timer);
+        }
+        return timer;
+    }
+
+    private static AtomicReferenceArray<Timer> newSlots() {
+        return new AtomicReferenceArray<>(OPERATIONS.length * RESULTS.length);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
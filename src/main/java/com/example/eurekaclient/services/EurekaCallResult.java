@@ -0,0 +1,34 @@
+package com.example.eurekaclient.services;
+
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Typisiertes Ergebnis eines Eureka-Aufrufs, statt Exceptions als Kontrollfluss.
+ */
+public enum EurekaCallResult {
+
+    OK,
+    NOT_FOUND,
+    RETRYABLE_ERROR,
+    FATAL,
+    /** Kein Request gesendet: der Circuit Breaker aller Peers ist offen. */
+    CIRCUIT_OPEN;
+
+    public boolean isOk() {
+        return this == OK;
+    }
+
+    static EurekaCallResult fromStatus(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return OK;
+        }
+        if (status.value() == 404) {
+            return NOT_FOUND;
+        }
+        // 408 und 429 sind client-seitige Codes, die sich durch Warten beheben
+        if (status.is5xxServerError() || status.value() == 408 || status.value() == 429) {
+            return RETRYABLE_ERROR;
+        }
+        return FATAL;
+    }
+}
@@ -1,10 +1,21 @@
 package com.example.eurekaclient.services;
 
-import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
+import com.example.eurekaclient.services.EurekaCallMetrics.Operation;
+
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,21 +29,35 @@ public class EurekaClientService {
 
     private static final Logger log = LoggerFactory.getLogger(EurekaClientService.class);
 
-    private final RestClient restClient;
+    private static final long ASYNC_DRAIN_SECONDS = 5;
 
-    @Value("${EUREKA_SERVER_URL:http://localhost:8761/eureka/apps/}")
-    String eurekaServerUrl;
+    private final RestClient restClient;
+    private final EurekaPeerPool peers;
+    private final EurekaCallMetrics metrics;
+    private final Map<Long, InstanceDescriptor> descriptors = new ConcurrentHashMap<>();
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    public EurekaClientService(RestClient restClient) {
+    public EurekaClientService(RestClient restClient, EurekaPeerPool peers, EurekaCallMetrics metrics) {
         this.restClient = restClient;
+        this.peers = peers;
+        this.metrics = metrics;
     }
 
-    private String getEurekaHost() {
+    /**
+     * Lets in-flight async calls finish for up to {@value #ASYNC_DRAIN_SECONDS} s, then cancels the rest.
+     * Runs after {@link LifecycleManager} has been destroyed, since it depends on this service.
+     */
+    @PreDestroy
+    public void stop() {
+        asyncExecutor.shutdown();
         try {
-            return new URI(eurekaServerUrl).getHost();
-        } catch (Exception e) {
-            log.warn("Could not parse Eureka URL '{}': {}", eurekaServerUrl, e.getMessage());
-            return eurekaServerUrl;
+            if (!asyncExecutor.awaitTermination(ASYNC_DRAIN_SECONDS, TimeUnit.SECONDS)) {
+                int cancelled = asyncExecutor.shutdownNow().size();
+                log.warn("Async Eureka calls still running after {} s, cancelled ({} queued)", ASYNC_DRAIN_SECONDS, cancelled);
+            }
+        } catch (InterruptedException e) {
+            asyncExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -44,143 +69,308 @@ public class EurekaClientService {
     public String generateServiceName(ServiceInstance instance) {
         String name = instance.getServiceName();
         if (name == null || name.isBlank()) {
-            log.warn("ServiceName is null or blank, using UNKNOWN (EurekaHost={})", getEurekaHost());
+            log.warn("ServiceName is null or blank, using UNKNOWN");
             return "UNKNOWN";
         }
         return name.trim().toUpperCase();
     }
 
-    public boolean registerInstance(ServiceInstance instance) {
+    InstanceDescriptor descriptor(ServiceInstance instance) {
+        Long id = instance.getId();
+        if (id == null) {
+            return buildDescriptor(instance);
+        }
+        return descriptors.computeIfAbsent(id, key -> buildDescriptor(instance));
+    }
+
+    public void invalidateDescriptor(ServiceInstance instance) {
+        if (instance.getId() != null) {
+            descriptors.remove(instance.getId());
+        }
+    }
+
+    private InstanceDescriptor buildDescriptor(ServiceInstance instance) {
         String serviceName = generateServiceName(instance);
-        String appUrl = eurekaServerUrl + serviceName;
+        String instanceId = generateInstanceId(instance);
+        return new InstanceDescriptor(serviceName, instanceId, serviceName, serviceName + "/" + instanceId,
+                buildXmlPayload(instance, instanceId));
+    }
+
+    public boolean registerInstance(ServiceInstance instance) {
+        return register(instance) == EurekaCallResult.OK;
+    }
+
+    public void deregisterInstance(ServiceInstance instance) {
+        deregister(instance);
+    }
+
+    public boolean sendHeartbeat(ServiceInstance instance) {
+        EurekaCallResult result = heartbeat(instance);
+        if (result == EurekaCallResult.NOT_FOUND) {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), new byte[0], null);
+        }
+        return result == EurekaCallResult.OK;
+    }
+
+    public CompletableFuture<EurekaCallResult> registerInstanceAsync(ServiceInstance instance) {
+        return CompletableFuture.supplyAsync(() -> register(instance), asyncExecutor);
+    }
+
+    public CompletableFuture<EurekaCallResult> deregisterInstanceAsync(ServiceInstance instance) {
+        return CompletableFuture.supplyAsync(() -> deregister(instance), asyncExecutor);
+    }
+
+    public CompletableFuture<EurekaCallResult> sendHeartbeatAsync(ServiceInstance instance) {
+        return CompletableFuture.supplyAsync(() -> heartbeat(instance), asyncExecutor);
+    }
+
+    private EurekaCallResult register(ServiceInstance instance) {
+        InstanceDescriptor descriptor = descriptor(instance);
+        return withFailover(Operation.REGISTER, descriptor, peer -> register(descriptor, peer));
+    }
+
+    private EurekaCallResult deregister(ServiceInstance instance) {
+        InstanceDescriptor descriptor = descriptor(instance);
+        EurekaCallResult result = withFailover(Operation.DEREGISTER, descriptor, peer -> deregister(descriptor, peer));
+        metrics.removeInstance(descriptor.instanceId());
+        return result;
+    }
+
+    private EurekaCallResult heartbeat(ServiceInstance instance) {
+        InstanceDescriptor descriptor = descriptor(instance);
+        return withFailover(Operation.HEARTBEAT, descriptor, peer -> heartbeat(descriptor, peer));
+    }
+
+    /**
+     * Setzt den Status über den Override von Eureka ({@code PUT apps/{app}/{id}/status?value=}). Die Lease und die
+     * Heartbeats bleiben unberührt. {@code UP} entfernt den Override ({@code DELETE .../status?value=UP}), damit
+     * Eureka wieder den registrierten Status verwendet.
+     */
+    public EurekaCallResult changeStatus(ServiceInstance instance, String status) {
+        InstanceDescriptor descriptor = descriptor(instance);
+        return withFailover(Operation.STATUS, descriptor, peer -> changeStatus(descriptor, peer, status));
+    }
+
+    /**
+     * Lädt die Registry ({@code GET apps/}) oder nur die Änderungen ({@code GET apps/delta}) als JSON.
+     *
+     * @return {@code null}, wenn kein Peer eine auswertbare Antwort geliefert hat
+     */
+    RegistryCache.Fetch fetchRegistry(boolean delta) {
+        AtomicReference<RegistryCache.Fetch> fetched = new AtomicReference<>();
+        EurekaCallResult result = withFailover(Operation.FETCH, null, peer -> fetch(peer, delta, fetched));
+        return result == EurekaCallResult.OK ? fetched.get() : null;
+    }
+
+    /**
+     * {@code false}, solange die Circuit Breaker aller Eureka-Peers offen sind.
+     */
+    public boolean isAvailable() {
+        return peers.isAvailable();
+    }
+
+    /**
+     * Versucht die Peers in der Reihenfolge des Pools; nur bei RETRYABLE_ERROR geht es zum nächsten Peer.
+     * Jede Antwort des Peers (auch 404 oder 4xx) zählt für dessen Score als Erfolg.
+     * Peers mit offenem Circuit Breaker werden übersprungen, ohne Request.
+     * Jeder Request landet in {@code eureka_call_duration}, der gesamte Aufruf optional im Instanz-Timer.
+     */
+    private EurekaCallResult withFailover(Operation operation, InstanceDescriptor descriptor,
+                                          Function<EurekaPeer, EurekaCallResult> call) {
+        long callStart = System.nanoTime();
+        List<EurekaPeer> candidates = peers.candidates();
+        EurekaCallResult result = EurekaCallResult.CIRCUIT_OPEN;
+        EurekaPeer failed = null;
+        for (EurekaPeer peer : candidates) {
+            if (!peers.tryAcquire(peer)) {
+                continue;
+            }
+            if (failed != null) {
+                peers.failover(failed);
+            }
+            peer.selected();
+            long start = System.nanoTime();
+            result = call.apply(peer);
+            long elapsed = System.nanoTime() - start;
+            peers.record(peer, result != EurekaCallResult.RETRYABLE_ERROR, elapsed);
+            metrics.recordCall(operation, peer.host(), result, elapsed);
+
+            if (result != EurekaCallResult.RETRYABLE_ERROR) {
+                break;
+            }
+            failed = peer;
+        }
+        if (result == EurekaCallResult.CIRCUIT_OPEN) {
+            peers.rejected();
+        }
+        if (descriptor != null) {
+            metrics.recordInstance(operation, descriptor.instanceId(), result, System.nanoTime() - callStart);
+        }
+        return result;
+    }
+
+    private EurekaCallResult register(InstanceDescriptor descriptor, EurekaPeer peer) {
+        String serviceName = descriptor.serviceName();
+        String appUrl = peer.baseUrl() + descriptor.appPath();
 
         try {
             ResponseEntity<Void> response = restClient.post()
                     .uri(appUrl)
                     .contentType(MediaType.APPLICATION_XML)
                     .accept(MediaType.APPLICATION_XML)
-                    .body(buildXmlPayload(instance))
+                    .body(descriptor.payload())
                     .retrieve()
                     .onStatus(status -> !status.equals(HttpStatus.NO_CONTENT), (req, res) -> {
                         log.error("Failed to register instance {}. Status: {} (EurekaHost={})",
-                                serviceName, res.getStatusCode(), getEurekaHost());
+                                serviceName, res.getStatusCode(), peer.host());
                     })
                     .toBodilessEntity();
 
             if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
-                log.info("Registered instance {} at {} (EurekaHost={})", serviceName, appUrl, getEurekaHost());
-                return true;
+                log.debug("Registered instance {} at {} (EurekaHost={})", serviceName, appUrl, peer.host());
+                return EurekaCallResult.OK;
             }
 
-            return false;
+            // Eureka bestätigt Registrierungen ausschließlich mit 204
+            EurekaCallResult result = EurekaCallResult.fromStatus(response.getStatusCode());
+            return result == EurekaCallResult.OK ? EurekaCallResult.RETRYABLE_ERROR : result;
 
+        } catch (RestClientResponseException e) {
+            log.error("Error registering instance {} at {} (EurekaHost={}): {}",
+                    serviceName, appUrl, peer.host(), e.getMessage());
+            return EurekaCallResult.fromStatus(e.getStatusCode());
         } catch (Exception e) {
             log.error("Error registering instance {} at {} (EurekaHost={}): {}",
-                    serviceName, appUrl, getEurekaHost(), e.getMessage(), e);
-            return false;
+                    serviceName, appUrl, peer.host(), e.getMessage());
+            log.debug("Stack trace for registration of {}", serviceName, e);
+            return EurekaCallResult.RETRYABLE_ERROR;
         }
     }
 
-    public void deregisterInstance(ServiceInstance instance) {
-        String serviceName = generateServiceName(instance);
-        String instanceId = generateInstanceId(instance);
-        String url = eurekaServerUrl + serviceName + "/" + instanceId;
+    private EurekaCallResult deregister(InstanceDescriptor descriptor, EurekaPeer peer) {
+        String serviceName = descriptor.serviceName();
+        String instanceId = descriptor.instanceId();
 
         try {
             restClient.delete()
-                    .uri(url)
+                    .uri(peer.baseUrl() + descriptor.instancePath())
                     .retrieve()
                     .toBodilessEntity();
-            log.info("Deregistered instance {} ({}) (EurekaHost={})", serviceName, instanceId, getEurekaHost());
+            log.debug("Deregistered instance {} ({}) (EurekaHost={})", serviceName, instanceId, peer.host());
+            return EurekaCallResult.OK;
         } catch (RestClientResponseException e) {
             log.error("Error deregistering instance {} ({}) (EurekaHost={}): {} {}",
-                    serviceName, instanceId, getEurekaHost(), e.getStatusCode(), e.getMessage(), e);
+                    serviceName, instanceId, peer.host(), e.getStatusCode(), e.getMessage());
+            return EurekaCallResult.fromStatus(e.getStatusCode());
         } catch (Exception e) {
             log.error("Error deregistering instance {} ({}) (EurekaHost={}): {}",
-                    serviceName, instanceId, getEurekaHost(), e.getMessage(), e);
+                    serviceName, instanceId, peer.host(), e.getMessage());
+            log.debug("Stack trace for deregistration of {}", serviceName, e);
+            return EurekaCallResult.RETRYABLE_ERROR;
         }
     }
 
-    public boolean sendHeartbeat(ServiceInstance instance) {
-        String serviceName = generateServiceName(instance);
-        String instanceId = generateInstanceId(instance);
-        String url = eurekaServerUrl + serviceName + "/" + instanceId;
+    private EurekaCallResult heartbeat(InstanceDescriptor descriptor, EurekaPeer peer) {
+        String serviceName = descriptor.serviceName();
+        String instanceId = descriptor.instanceId();
 
         try {
             restClient.put()
-                    .uri(url)
+                    .uri(peer.baseUrl() + descriptor.instancePath())
                     .retrieve()
                     .toBodilessEntity();
-            log.info("[Heartbeat] OK for {} ({}) (EurekaHost={})", serviceName, instanceId, getEurekaHost());
-            return true;
+            // Heartbeats landen im LifecycleJournal; hier nur auf DEBUG, sonst eine Zeile pro Instanz und Intervall
+            log.debug("[Heartbeat] OK for {} ({}) (EurekaHost={})", serviceName, instanceId, peer.host());
+            return EurekaCallResult.OK;
 
         } catch (HttpClientErrorException.NotFound nf) {
-            log.error("[Heartbeat] Instance {} ({}) not found (EurekaHost={})", serviceName, instanceId, getEurekaHost(), nf);
-            throw nf;
+            log.debug("[Heartbeat] Instance {} ({}) not found (EurekaHost={})", serviceName, instanceId, peer.host());
+            return EurekaCallResult.NOT_FOUND;
+
+        } catch (RestClientResponseException e) {
+            log.debug("[Heartbeat] Error for {} ({}): {} (EurekaHost={})",
+                    serviceName, instanceId, e.getMessage(), peer.host());
+            return EurekaCallResult.fromStatus(e.getStatusCode());
+
+        } catch (Exception e) {
+            log.debug("[Heartbeat] Error for {} ({}): {} (EurekaHost={})",
+                    serviceName, instanceId, e.getMessage(), peer.host(), e);
+            return EurekaCallResult.RETRYABLE_ERROR;
+        }
+    }
+
+    private EurekaCallResult changeStatus(InstanceDescriptor descriptor, EurekaPeer peer, String status) {
+        String url = peer.baseUrl() + descriptor.instancePath() + "/status?value=" + status;
+        try {
+            if ("UP".equals(status)) {
+                restClient.delete().uri(url).retrieve().toBodilessEntity();
+            } else {
+                restClient.put().uri(url).retrieve().toBodilessEntity();
+            }
+            log.debug("Status of {} set to {} (EurekaHost={})", descriptor.instanceId(), status, peer.host());
+            return EurekaCallResult.OK;
+        } catch (RestClientResponseException e) {
+            log.warn("Error setting status of {} to {} (EurekaHost={}): {}",
+                    descriptor.instanceId(), status, peer.host(), e.getStatusCode());
+            return EurekaCallResult.fromStatus(e.getStatusCode());
+        } catch (Exception e) {
+            log.warn("Error setting status of {} to {} (EurekaHost={}): {}",
+                    descriptor.instanceId(), status, peer.host(), e.getMessage());
+            log.debug("Stack trace for status change of {}", descriptor.instanceId(), e);
+            return EurekaCallResult.RETRYABLE_ERROR;
+        }
+    }
 
+    private EurekaCallResult fetch(EurekaPeer peer, boolean delta, AtomicReference<RegistryCache.Fetch> fetched) {
+        String url = peer.baseUrl() + (delta ? "delta" : "");
+        try {
+            byte[] body = restClient.get()
+                    .uri(url)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .body(byte[].class);
+            fetched.set(RegistryCache.parse(body != null ? body : new byte[0]));
+            return EurekaCallResult.OK;
+        } catch (RestClientResponseException e) {
+            log.warn("Error fetching registry from {} (EurekaHost={}): {}", url, peer.host(), e.getStatusCode());
+            return EurekaCallResult.fromStatus(e.getStatusCode());
         } catch (Exception e) {
-            log.error("[Heartbeat] Error for {} ({}): {} (EurekaHost={})",
-                    serviceName, instanceId, e.getMessage(), getEurekaHost(), e);
-            return false;
+            log.warn("Error fetching registry from {} (EurekaHost={}): {}", url, peer.host(), e.getMessage());
+            log.debug("Stack trace for registry fetch", e);
+            return EurekaCallResult.RETRYABLE_ERROR;
         }
     }
 
-    String buildXmlPayload(ServiceInstance instance) {
+    byte[] buildXmlPayload(ServiceInstance instance) {
+        return buildXmlPayload(instance, generateInstanceId(instance));
+    }
+
+    private static byte[] buildXmlPayload(ServiceInstance instance, String instanceId) {
         boolean ssl = instance.isSslPreferred();
         String protocol = ssl ? "https" : "http";
         int port = ssl ? instance.getSecurePort() : instance.getHttpPort();
+        String hostName = instance.getHostName();
+        String serviceNameLower = instance.getServiceName() != null ? instance.getServiceName().toLowerCase() : "";
+        String dataCenterInfoName = instance.getDataCenterInfoName() != null ? instance.getDataCenterInfoName() : "MyOwn";
 
-        String instanceId  = escapeXml(generateInstanceId(instance));
-        String hostName    = escapeXml(instance.getHostName());
-        String serviceName = escapeXml(instance.getServiceName());
-        String serviceNameLower = escapeXml(instance.getServiceName() != null ? instance.getServiceName().toLowerCase() : "");
-        String ipAddr      = escapeXml(instance.getIpAddr());
-        String status      = escapeXml(instance.getStatus());
-        String dataCenterInfoName = escapeXml(instance.getDataCenterInfoName() != null ? instance.getDataCenterInfoName() : "MyOwn");
-
-        return """
-                <instance>
-                  <instanceId>%s</instanceId>
-                  <hostName>%s</hostName>
-                  <app>%s</app>
-                  <ipAddr>%s</ipAddr>
-                  <vipAddress>%s</vipAddress>
-                  <secureVipAddress>%s</secureVipAddress>
-                  <status>%s</status>
-                  <port enabled="%s">%d</port>
-                  <securePort enabled="%s">%d</securePort>
-                  <homePageUrl>%s://%s:%d/</homePageUrl>
-                  <statusPageUrl>%s://%s:%d/actuator/info</statusPageUrl>
-                  <healthCheckUrl>%s://%s:%d/actuator/health</healthCheckUrl>
-                  <dataCenterInfo class="com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo">
-                    <name>%s</name>
-                  </dataCenterInfo>
-                </instance>
-                """.formatted(
-                instanceId,
-                hostName,
-                serviceName,
-                ipAddr,
-                serviceNameLower,
-                serviceNameLower,
-                status,
-                ssl ? "false" : "true",
-                instance.getHttpPort(),
-                ssl ? "true" : "false",
-                instance.getSecurePort(),
-                protocol, hostName, port,
-                protocol, hostName, port,
-                protocol, hostName, port,
-                dataCenterInfoName);
-    }
-
-    private static String escapeXml(String value) {
-        if (value == null) return "";
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+        return new EurekaXmlWriter(768)
+                .open("instance")
+                .element("instanceId", instanceId)
+                .element("hostName", hostName)
+                .element("app", instance.getServiceName())
+                .element("ipAddr", instance.getIpAddr())
+                .element("vipAddress", serviceNameLower)
+                .element("secureVipAddress", serviceNameLower)
+                .element("status", instance.getStatus())
+                .element("port", "enabled", ssl ? "false" : "true", instance.getHttpPort())
+                .element("securePort", "enabled", ssl ? "true" : "false", instance.getSecurePort())
+                .url("homePageUrl", protocol, hostName, port, "/")
+                .url("statusPageUrl", protocol, hostName, port, "/actuator/info")
+                .url("healthCheckUrl", protocol, hostName, port, "/actuator/health")
+                .open("dataCenterInfo", "class", "com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo")
+                .element("name", dataCenterInfoName)
+                .close("dataCenterInfo")
+                .close("instance")
+                .toBytes();
     }
 }
@@ -0,0 +1,134 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ein Eureka-Peer mit EWMA-Latenz und EWMA-Fehlerquote.
+ * Updates sind pro Peer synchronisiert, gelesen wird ohne Lock.
+ */
+final class EurekaPeer {
+
+    private final String baseUrl;
+    private final String host;
+    private final int order;
+
+    private final Timer latencyTimer;
+    private final Counter selectionCounter;
+
+    private volatile double latencyMillis;
+    private volatile double errorRate;
+    private volatile int consecutiveFailures;
+    private volatile boolean healthy = true;
+
+    EurekaPeer(String baseUrl, int order, MeterRegistry meterRegistry) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.host = hostOf(this.baseUrl);
+        this.order = order;
+
+        this.latencyTimer = Timer.builder("eureka_peer_latency")
+                .description("Antwortzeit eines Eureka-Peers")
+                .tag("peer", host)
+                .register(meterRegistry);
+
+        this.selectionCounter = Counter.builder("eureka_peer_selections_total")
+                .description("Anzahl der an einen Eureka-Peer gesendeten Requests")
+                .tag("peer", host)
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_peer_healthy", this, p -> p.healthy ? 1 : 0)
+                .description("1, wenn der Eureka-Peer als erreichbar gilt")
+                .tag("peer", host)
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_peer_error_rate", this, p -> p.errorRate)
+                .description("EWMA-Fehlerquote eines Eureka-Peers")
+                .tag("peer", host)
+                .register(meterRegistry);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    String host() {
+        return host;
+    }
+
+    int order() {
+        return order;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    double latencyMillis() {
+        return latencyMillis;
+    }
+
+    double errorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Niedriger ist besser: geglättete Latenz plus Strafzeit proportional zur Fehlerquote.
+     */
+    double score(double errorPenaltyMillis) {
+        return latencyMillis + errorRate * errorPenaltyMillis;
+    }
+
+    void selected() {
+        selectionCounter.increment();
+    }
+
+    /**
+     * @return {@code true}, wenn der Peer durch diesen Fehler als nicht erreichbar markiert wurde
+     */
+    synchronized boolean record(boolean success, long nanos, double alpha, int failureThreshold) {
+        double millis = nanos / 1_000_000.0;
+        latencyMillis = latencyMillis == 0 ? millis : alpha * millis + (1 - alpha) * latencyMillis;
+        errorRate = alpha * (success ? 0 : 1) + (1 - alpha) * errorRate;
+        latencyTimer.record(nanos, TimeUnit.NANOSECONDS);
+
+        if (success) {
+            consecutiveFailures = 0;
+            healthy = true;
+            return false;
+        }
+        consecutiveFailures++;
+        if (healthy && consecutiveFailures >= failureThreshold) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void recovered() {
+        consecutiveFailures = 0;
+        errorRate = errorRate / 2;
+        healthy = true;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return url;
+            }
+            return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return host;
+    }
+}
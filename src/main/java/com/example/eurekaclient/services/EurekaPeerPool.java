@@ -0,0 +1,246 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peers aus {@code EUREKA_SERVER_URL} (kommagetrennt), sortiert nach EWMA-Latenz und Fehlerquote.
+ * <p>
+ * Peers mit {@code eureka.peers.failure-threshold} Fehlern in Folge werden nur noch angesprochen,
+ * wenn kein erreichbarer Peer übrig ist, und im Hintergrund über {@code GET apps/delta} erneut geprüft.
+ * Bei gleichem Score gewinnt die konfigurierte Reihenfolge.
+ * <p>
+ * Zusätzlich hat jeder Peer einen {@link CircuitBreaker}, der bei hoher Fehlerquote oder vielen langsamen
+ * Aufrufen keine Requests mehr durchlässt. Sind alle Breaker offen, gilt Eureka als nicht verfügbar.
+ */
+@Slf4j
+@Component
+public class EurekaPeerPool {
+
+    private final RestClient restClient;
+    private final List<EurekaPeer> peers;
+    private final MeterRegistry meterRegistry;
+    private final Counter failoverCounter;
+    private final Counter rejectedCounter;
+    private final Map<EurekaPeer, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Value("${eureka.peers.ewma-alpha:0.3}")
+    private double alpha;
+
+    @Value("${eureka.peers.error-penalty-ms:1000}")
+    private double errorPenaltyMillis;
+
+    @Value("${eureka.peers.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${eureka.peers.probe-interval-ms:10000}")
+    private long probeIntervalMs;
+
+    @Value("${eureka.circuit.window-size:20}")
+    private int circuitWindowSize;
+
+    @Value("${eureka.circuit.min-calls:10}")
+    private int circuitMinCalls;
+
+    @Value("${eureka.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+
+    @Value("${eureka.circuit.slow-call-ms:2000}")
+    private long circuitSlowCallMs;
+
+    @Value("${eureka.circuit.slow-call-rate:0.8}")
+    private double circuitSlowCallRate;
+
+    @Value("${eureka.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    @Value("${eureka.circuit.half-open-calls:3}")
+    private int circuitHalfOpenCalls;
+
+    private ScheduledExecutorService prober;
+
+    public EurekaPeerPool(RestClient restClient,
+                          @Value("${EUREKA_SERVER_URL:http://localhost:8761/eureka/apps/}") String serverUrls,
+                          MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.meterRegistry = meterRegistry;
+
+        String[] urls = Arrays.stream(serverUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toArray(String[]::new);
+        if (urls.length == 0) {
+            throw new IllegalArgumentException("EUREKA_SERVER_URL enthält keinen Peer");
+        }
+        List<EurekaPeer> list = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            list.add(new EurekaPeer(urls[i], i, meterRegistry));
+        }
+        this.peers = List.copyOf(list);
+
+        this.failoverCounter = Counter.builder("eureka_peer_failovers_total")
+                .description("Anzahl der Wechsel auf den nächsten Eureka-Peer innerhalb eines Aufrufs")
+                .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("eureka_circuit_rejected_total")
+                .description("Anzahl nicht gesendeter Eureka-Aufrufe, weil alle Circuit Breaker offen waren")
+                .register(meterRegistry);
+
+        log.info("[Peers] {} Eureka-Peer(s) konfiguriert: {}", peers.size(), peers);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (peers.size() < 2) {
+            // Ein einzelner Peer wird ohnehin immer angesprochen, ein Probe würde nichts ändern
+            return;
+        }
+        prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eureka-peer-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        prober.scheduleWithFixedDelay(this::probeUnhealthy, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    /**
+     * Reihenfolge, in der ein Aufruf die Peers versucht: erreichbare Peers nach Score,
+     * nicht erreichbare nur, wenn kein anderer übrig ist.
+     */
+    List<EurekaPeer> candidates() {
+        if (peers.size() == 1) {
+            return peers;
+        }
+        Comparator<EurekaPeer> byScore = Comparator
+                .comparingDouble((EurekaPeer p) -> p.score(errorPenaltyMillis))
+                .thenComparingInt(EurekaPeer::order);
+
+        List<EurekaPeer> healthy = new ArrayList<>(peers.size());
+        for (EurekaPeer peer : peers) {
+            if (peer.isHealthy()) {
+                healthy.add(peer);
+            }
+        }
+        List<EurekaPeer> ranked = healthy.isEmpty() ? new ArrayList<>(peers) : healthy;
+        ranked.sort(byScore);
+        return ranked;
+    }
+
+    boolean tryAcquire(EurekaPeer peer) {
+        return breaker(peer).tryAcquire();
+    }
+
+    void record(EurekaPeer peer, boolean success, long nanos) {
+        if (peer.record(success, nanos, alpha, failureThreshold)) {
+            log.warn("[Peers] Eureka-Peer {} nach {} Fehlern in Folge als nicht erreichbar markiert",
+                    peer, failureThreshold);
+        }
+        CircuitBreaker.State transition = breaker(peer).onResult(success, nanos);
+        if (transition == CircuitBreaker.State.OPEN) {
+            log.warn("[Circuit] Breaker für Eureka-Peer {} geöffnet – keine Requests für {} ms", peer, circuitOpenMs);
+        } else if (transition == CircuitBreaker.State.CLOSED) {
+            log.info("[Circuit] Breaker für Eureka-Peer {} wieder geschlossen", peer);
+        }
+    }
+
+    void failover(EurekaPeer from) {
+        failoverCounter.increment();
+        log.warn("[Peers] Eureka-Peer {} fehlgeschlagen – Wechsel auf nächsten Peer", from);
+    }
+
+    void rejected() {
+        rejectedCounter.increment();
+    }
+
+    /**
+     * {@code false}, solange die Circuit Breaker aller Peers offen sind.
+     */
+    public boolean isAvailable() {
+        for (EurekaPeer peer : peers) {
+            if (breaker(peer).isCallPermitted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    CircuitBreaker.State circuitState(EurekaPeer peer) {
+        return breaker(peer).state();
+    }
+
+    private CircuitBreaker breaker(EurekaPeer peer) {
+        CircuitBreaker breaker = breakers.get(peer);
+        return breaker != null ? breaker : breakers.computeIfAbsent(peer, this::newBreaker);
+    }
+
+    private CircuitBreaker newBreaker(EurekaPeer peer) {
+        // Lazy, damit die per @Value gesetzten Schwellen greifen
+        CircuitBreaker breaker = new CircuitBreaker(new CircuitBreaker.Settings(
+                circuitWindowSize, circuitMinCalls, circuitFailureRate,
+                circuitSlowCallMs, circuitSlowCallRate, circuitOpenMs, circuitHalfOpenCalls));
+        Gauge.builder("eureka_circuit_state", breaker, b -> b.state().ordinal())
+                .description("Zustand des Circuit Breakers je Eureka-Peer (0 = closed, 1 = open, 2 = half-open)")
+                .tag("peer", peer.host())
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    List<EurekaPeer> peers() {
+        return peers;
+    }
+
+    void probeUnhealthy() {
+        for (EurekaPeer peer : peers) {
+            if (peer.isHealthy()) {
+                continue;
+            }
+            if (probe(peer)) {
+                peer.recovered();
+                log.info("[Peers] Eureka-Peer {} wieder erreichbar", peer);
+            } else {
+                log.debug("[Peers] Eureka-Peer {} weiterhin nicht erreichbar", peer);
+            }
+        }
+    }
+
+    private boolean probe(EurekaPeer peer) {
+        try {
+            restClient.get()
+                    .uri(peer.baseUrl() + "delta")
+                    .retrieve()
+                    .toBodilessEntity();
+            return true;
+        } catch (RestClientResponseException e) {
+            // Der Peer antwortet; nur Serverfehler gelten als nicht erreichbar
+            return !e.getStatusCode().is5xxServerError();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.eurekaclient.services;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimaler XML-Writer für den Eureka-Registrierungs-Payload.
+ * Schreibt und escaped in einem Durchlauf direkt in einen vorab dimensionierten {@link StringBuilder}, ohne
+ * Zwischen-Strings pro Wert. Der Puffer gehört zu genau einem Payload; da der Payload pro Instanz im Descriptor
+ * gecacht wird, lohnt sich kein Wiederverwenden über Instanzen hinweg.
+ */
+final class EurekaXmlWriter {
+
+    private final StringBuilder out;
+
+    EurekaXmlWriter(int capacity) {
+        this.out = new StringBuilder(capacity);
+    }
+
+    EurekaXmlWriter open(String name) {
+        out.append('<').append(name).append('>');
+        return this;
+    }
+
+    EurekaXmlWriter open(String name, String attribute, String attributeValue) {
+        out.append('<').append(name).append(' ').append(attribute).append("=\"");
+        escape(out, attributeValue);
+        out.append("\">");
+        return this;
+    }
+
+    EurekaXmlWriter close(String name) {
+        out.append("</").append(name).append('>');
+        return this;
+    }
+
+    EurekaXmlWriter element(String name, String value) {
+        open(name);
+        escape(out, value);
+        return close(name);
+    }
+
+    EurekaXmlWriter element(String name, int value) {
+        open(name);
+        out.append(value);
+        return close(name);
+    }
+
+    EurekaXmlWriter element(String name, String attribute, String attributeValue, int value) {
+        open(name, attribute, attributeValue);
+        out.append(value);
+        return close(name);
+    }
+
+    /**
+     * Schreibt {@code protocol://host:port + path} als Element, ohne Zwischen-Strings.
+     */
+    EurekaXmlWriter url(String name, String protocol, String host, int port, String path) {
+        open(name);
+        out.append(protocol).append("://");
+        escape(out, host);
+        out.append(':').append(port).append(path);
+        return close(name);
+    }
+
+    /**
+     * Kopiert den Puffer einmal als UTF-8; das Ergebnis wird vom Aufrufer gecacht.
+     */
+    byte[] toBytes() {
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    static void escape(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&apos;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, length);
+    }
+
+    /**
+     * Escaped einen einzelnen Wert außerhalb des Writers. Ohne Sonderzeichen wird {@code value} unverändert
+     * zurückgegeben, ohne Allokation.
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!needsEscaping(value)) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        escape(out, value);
+        return out.toString();
+    }
+
+    private static boolean needsEscaping(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            switch (value.charAt(i)) {
+                case '&', '<', '>', '"', '\'' -> {
+                    return true;
+                }
+                default -> { }
+            }
+        }
+        return false;
+    }
+}
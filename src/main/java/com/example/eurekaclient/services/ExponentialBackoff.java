@@ -0,0 +1,24 @@
+package com.example.eurekaclient.services;
+
+/**
+ * Verdopplung ohne Jitter: {@code min(cap, base * 2^(attempt-1))}.
+ * <p>
+ * Entspricht dem bisherigen Verhalten, weil {@link LifecycleManager} Heartbeat-Retries mit {@code attempt + 1}
+ * anfragt: Registrierungen warten 1 s, 2 s, 4 s …, Heartbeats 2 s, 4 s, 8 s … (bei {@code base = 1000}).
+ */
+public final class ExponentialBackoff implements BackoffPolicy {
+
+    private final long baseMillis;
+    private final long capMillis;
+
+    public ExponentialBackoff(long baseMillis, long capMillis) {
+        this.baseMillis = baseMillis;
+        this.capMillis = capMillis;
+    }
+
+    @Override
+    public long nextDelayMillis(int attempt, long previousDelay) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        return Math.min(capMillis, baseMillis << shift);
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.eurekaclient.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed Timing Wheel für sehr viele periodische und einmalige Aufgaben.
+ * <p>
+ * Einfügen und Abbrechen sind O(1): neue und abgebrochene Timeouts landen in lock-freien Queues
+ * und werden vom Worker-Thread beim nächsten Tick in die Buckets übernommen bzw. ausgehängt.
+ * Fällige Aufgaben werden an den übergebenen {@link Executor} abgegeben, der Worker selbst
+ * blockiert nie auf einer Aufgabe.
+ */
+public final class HashedTimingWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private static final int ST_INIT = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor dispatcher;
+    private final Thread workerThread;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Timeout> reschedule = new ArrayDeque<>();
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize,
+                             Executor dispatcher, ThreadFactory threadFactory) {
+        this(tickDuration, unit, wheelSize, dispatcher, threadFactory, true);
+    }
+
+    /**
+     * Rad ohne Worker-Thread, das nur über {@link #advance()} weiterläuft – für Benchmarks, die Einsortieren und
+     * Aushängen in den Buckets mitmessen wollen.
+     */
+    static HashedTimingWheel withoutWorker(long tickDuration, TimeUnit unit, int wheelSize, Executor dispatcher) {
+        return new HashedTimingWheel(tickDuration, unit, wheelSize, dispatcher, null, false);
+    }
+
+    private HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize,
+                              Executor dispatcher, ThreadFactory threadFactory, boolean startWorker) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration muss > 0 sein: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize muss zwischen 1 und 2^30 liegen: " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (wheelSize == 1) {
+            size = 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.dispatcher = dispatcher;
+        this.startNanos = System.nanoTime();
+        if (startWorker) {
+            this.workerThread = threadFactory.newThread(this::runWorker);
+            this.workerThread.start();
+        } else {
+            this.workerThread = null;
+        }
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return add(task, unit.toNanos(Math.max(0, delay)), 0);
+    }
+
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period muss > 0 sein: " + period);
+        }
+        return add(task, unit.toNanos(Math.max(0, initialDelay)), unit.toNanos(period));
+    }
+
+    /**
+     * Liefert den Start-Offset innerhalb von {@code period}, so dass ein Schlüssel unabhängig vom
+     * Zeitpunkt der Einplanung immer auf derselben Phase relativ zum Start des Rads landet.
+     */
+    public long phaseDelay(String key, long period, TimeUnit unit) {
+        long periodNanos = unit.toNanos(period);
+        long periodTicks = Math.max(1, periodNanos / tickNanos);
+        long phase = (mix(key.hashCode()) % periodTicks) * tickNanos;
+        long now = System.nanoTime() - startNanos;
+        return unit.convert(Math.floorMod(phase - now, periodNanos), TimeUnit.NANOSECONDS);
+    }
+
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    public void stop() {
+        running = false;
+        if (workerThread != null) {
+            workerThread.interrupt();
+        }
+    }
+
+    /**
+     * Führt sofort den nächsten Tick aus, ohne auf dessen Zeitpunkt zu warten. Nur für Räder aus
+     * {@link #withoutWorker}.
+     */
+    void advance() {
+        if (workerThread != null) {
+            throw new IllegalStateException("Timing Wheel hat einen eigenen Worker-Thread");
+        }
+        tick(tickNanos * (tick + 1));
+    }
+
+    private Timeout add(Runnable task, long delayNanos, long periodNanos) {
+        if (!running) {
+            throw new IllegalStateException("Timing Wheel wurde bereits gestoppt");
+        }
+        long deadline = System.nanoTime() - startNanos + delayNanos;
+        Timeout timeout = new Timeout(task, deadline, periodNanos);
+        pendingCount.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void runWorker() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            tick(deadline);
+        }
+        log.debug("[Wheel] Worker beendet, {} Timeouts verworfen", pendingCount.get());
+    }
+
+    private void tick(long deadline) {
+        processCancelled();
+        transferPending();
+        wheel[(int) (tick & mask)].expire(deadline);
+        tick++;
+        // Erst nach dem Durchlauf neu einsortieren, sonst würde ein Timeout im selben Bucket
+        // noch im aktuellen Tick eine Runde heruntergezählt
+        Timeout timeout;
+        while ((timeout = reschedule.poll()) != null) {
+            place(timeout);
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (running) {
+            long current = System.nanoTime() - startNanos;
+            long sleepNanos = deadline - current;
+            if (sleepNanos <= 0) {
+                return current;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void transferPending() {
+        // Begrenzung pro Tick, damit ein Einfüge-Burst den Worker nicht beliebig lange aufhält
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == ST_CANCELLED) {
+                continue;
+            }
+            place(timeout);
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long calculated = timeout.deadline / tickNanos;
+        timeout.remainingRounds = (calculated - tick) / wheel.length;
+        long ticks = Math.max(calculated, tick);
+        wheel[(int) (ticks & mask)].add(timeout);
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        if (timeout.periodNanos > 0) {
+            timeout.deadline += timeout.periodNanos;
+            reschedule.add(timeout);
+        } else {
+            timeout.state.compareAndSet(ST_INIT, ST_EXPIRED);
+            pendingCount.decrementAndGet();
+        }
+        try {
+            dispatcher.execute(timeout.task);
+        } catch (RuntimeException e) {
+            log.warn("[Wheel] Aufgabe konnte nicht übergeben werden: {}", e.getMessage());
+        }
+    }
+
+    static int mix(int h) {
+        // Murmur3-Finalizer: verteilt auch ähnliche Instance-IDs gleichmäßig
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & 0x7fffffff;
+    }
+
+    public final class Timeout implements ScheduledTask {
+
+        private final Runnable task;
+        private final long periodNanos;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private long deadline;
+        private long remainingRounds;
+
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(Runnable task, long deadline, long periodNanos) {
+            this.task = task;
+            this.deadline = deadline;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public void cancel() {
+            if (state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                pendingCount.decrementAndGet();
+                cancelled.add(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+    }
+
+    /**
+     * Doppelt verkettete Liste; wird ausschließlich vom Worker-Thread verändert.
+     */
+    private final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.state.get() == ST_CANCELLED) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        fire(timeout);
+                    } else {
+                        reschedule.add(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
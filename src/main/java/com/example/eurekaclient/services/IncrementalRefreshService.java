@@ -0,0 +1,84 @@
+package com.example.eurekaclient.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Gleicht den Store mit einer neuen Liste von Instanzen ab und fasst nur die betroffenen Lifecycles an:
+ * entfernte werden deregistriert, geänderte neu registriert, neue gestartet.
+ * Unveränderte Instanzen behalten ihren laufenden Heartbeat.
+ */
+@Slf4j
+@Service
+public class IncrementalRefreshService {
+
+    private final ServiceInstanceStore store;
+    private final LifecycleManager lifecycleManager;
+
+    public IncrementalRefreshService(ServiceInstanceStore store, LifecycleManager lifecycleManager) {
+        this.store = store;
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    public synchronized RefreshResult apply(List<ServiceInstance> desired) {
+        long start = System.nanoTime();
+        InventoryDiff diff = InventoryDiff.compute(store.getInstances(), desired);
+
+        for (ServiceInstance removed : diff.removed()) {
+            lifecycleManager.stopLifecycle(removed);
+            store.remove(removed);
+            log.info("[Refresh] Entfernt: {}", removed.getServiceName());
+        }
+
+        for (InventoryDiff.Change change : diff.changed()) {
+            ServiceInstance existing = change.existing();
+            lifecycleManager.stopLifecycle(existing);
+            InventoryDiff.copyRegistration(change.desired(), existing);
+            store.save(existing);
+            lifecycleManager.startLifecycle(existing);
+            log.info("[Refresh] Geändert: {}", existing.getServiceName());
+        }
+
+        for (ServiceInstance added : diff.added()) {
+            added.setId(null);
+            store.save(added);
+            lifecycleManager.startLifecycle(added);
+            log.info("[Refresh] Neu: {}", added.getServiceName());
+        }
+
+        RefreshResult result = new RefreshResult(diff.added().size(), diff.removed().size(),
+                diff.changed().size(), diff.unchanged().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        log.info("[Refresh] Inkrementell: {} neu, {} entfernt, {} geändert, {} unverändert in {} ms",
+                result.added(), result.removed(), result.changed(), result.unchanged(), result.durationMs());
+        return result;
+    }
+
+    /**
+     * Führt eine andere Änderung am Inventar unter demselben Monitor wie {@link #apply} aus, damit sie weder mit
+     * einem Refresh noch mit dem {@link ServicesFileWatcher} überlappt.
+     */
+    public synchronized <T> T exclusive(Supplier<T> change) {
+        return change.get();
+    }
+
+    public record RefreshResult(int added, int removed, int changed, int unchanged, long durationMs) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("added", added);
+            map.put("removed", removed);
+            map.put("changed", changed);
+            map.put("unchanged", unchanged);
+            map.put("durationMs", durationMs);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.eurekaclient.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Locale;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "Ein Eintrag eines Instanz-Batches. Bei CREATE und UPDATE ersetzen die Felder die komplette " +
+                      "Registrierung wie ein Eintrag in services.json, bei DELETE genügt serviceName.")
+public class InstanceBatchItem {
+
+    public enum Action { CREATE, UPDATE, DELETE }
+
+    @NotNull(message = "action ist ein Pflichtfeld")
+    @Schema(description = "Auszuführende Aktion.", example = "CREATE", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Action action;
+
+    @NotBlank(message = "serviceName ist ein Pflichtfeld")
+    @Schema(description = "Name des Services (Identifikation, ohne Beachtung der Groß-/Kleinschreibung).",
+            example = "payment-service", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String serviceName;
+
+    @Schema(description = "Hostname der Instance.", example = "payment-host-01")
+    private String hostName;
+
+    @Pattern(regexp = "^(([0-9]{1,3}\\.){3}[0-9]{1,3}|[a-zA-Z0-9._-]+)$", message = "Ungültige IP-Adresse oder Hostname")
+    @Schema(description = "IP-Adresse der Instance.", example = "192.168.1.42")
+    private String ipAddr;
+
+    @Min(value = 0, message = "httpPort muss zwischen 0 und 65535 liegen")
+    @Max(value = 65535, message = "httpPort muss zwischen 0 und 65535 liegen")
+    @Schema(description = "HTTP-Port der Instance (bei CREATE und UPDATE mindestens 1).", example = "8080")
+    private int httpPort;
+
+    @Min(value = 0, message = "securePort muss zwischen 0 und 65535 liegen")
+    @Max(value = 65535, message = "securePort muss zwischen 0 und 65535 liegen")
+    @Schema(description = "HTTPS/Secure-Port der Instance (0 = deaktiviert).", example = "8443")
+    private int securePort;
+
+    @Schema(description = "Name des Data-Center-Providers.", example = "MyOwn")
+    private String dataCenterInfoName;
+
+    @Pattern(regexp = "(?i)UP|DOWN|STARTING|OUT_OF_SERVICE|UNKNOWN",
+             message = "status muss UP, DOWN, STARTING, OUT_OF_SERVICE oder UNKNOWN sein")
+    @Schema(description = "Registrierter Eureka-Status (leer = UP).", example = "UP")
+    private String status;
+
+    @Schema(description = "Gibt an, ob Clients den Secure-Port bevorzugen sollen.", example = "false")
+    private boolean sslPreferred;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "CREATE und UPDATE benötigen hostName, ipAddr und einen httpPort zwischen 1 und 65535")
+    public boolean isRegistrationComplete() {
+        return action == Action.DELETE || action == null
+                || (hostName != null && !hostName.isBlank() && ipAddr != null && !ipAddr.isBlank() && httpPort >= 1);
+    }
+
+    /**
+     * Neue Instanz mit den Registrierungsdaten dieses Eintrags, ohne ID.
+     */
+    ServiceInstance toInstance() {
+        return ServiceInstance.builder()
+                .serviceName(serviceName.trim())
+                .hostName(hostName.trim())
+                .ipAddr(ipAddr.trim())
+                .httpPort(httpPort)
+                .securePort(securePort)
+                .dataCenterInfoName(dataCenterInfoName)
+                .status(status == null ? null : status.trim().toUpperCase(Locale.ROOT))
+                .sslPreferred(sslPreferred)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.eurekaclient.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "Request-Body zum Anlegen, Ändern und Entfernen mehrerer Service-Instances in einem Schritt.")
+public class InstanceBatchRequest {
+
+    public static final int MAX_ITEMS = 5000;
+
+    @NotEmpty(message = "items darf nicht leer sein")
+    @Size(max = MAX_ITEMS, message = "items darf höchstens " + MAX_ITEMS + " Einträge enthalten")
+    @Schema(description = "Einträge des Batches. Jeder serviceName darf nur einmal vorkommen.",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<@Valid InstanceBatchItem> items;
+}
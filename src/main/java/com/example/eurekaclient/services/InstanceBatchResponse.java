@@ -0,0 +1,45 @@
+package com.example.eurekaclient.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Ergebnis eines Instanz-Batches.")
+public record InstanceBatchResponse(
+        @Schema(description = "false, wenn der Batch bei der Prüfung abgelehnt und nichts geändert wurde.", example = "true")
+        boolean applied,
+        @Schema(description = "Anzahl erfolgreich ausgeführter Einträge.", example = "198")
+        int succeeded,
+        @Schema(description = "Anzahl abgelehnter, übersprungener oder noch nicht registrierter Einträge.", example = "2")
+        int failed,
+        @Schema(description = "Gesamtdauer in Millisekunden.", example = "2310")
+        long durationMs,
+        @Schema(description = "Ergebnis pro Eintrag in der Reihenfolge des Requests.")
+        List<ItemResult> results
+) {
+
+    @Schema(description = "Ergebnis für einen einzelnen Eintrag.")
+    public record ItemResult(
+            @Schema(description = "Position im Request (ab 0).", example = "0")
+            int index,
+            @Schema(description = "Aktion des Eintrags.", example = "CREATE")
+            InstanceBatchItem.Action action,
+            @Schema(description = "Name des Services.", example = "payment-service")
+            String serviceName,
+            @Schema(description = "REGISTERED, REGISTER_PENDING (Retry läuft), DEREGISTERED, UNCHANGED, FAILED, INVALID oder SKIPPED.",
+                    example = "REGISTERED")
+            String outcome,
+            @Schema(description = "Dauer der Eureka-Aufrufe dieses Eintrags in Millisekunden.", example = "35")
+            long latencyMs,
+            @Schema(description = "Grund bei INVALID und FAILED.", example = "serviceName existiert bereits")
+            String message
+    ) {
+
+        boolean isOk() {
+            return switch (outcome) {
+                case "REGISTERED", "DEREGISTERED", "UNCHANGED" -> true;
+                default -> false;
+            };
+        }
+    }
+}
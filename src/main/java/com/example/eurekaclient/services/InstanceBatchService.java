@@ -0,0 +1,204 @@
+package com.example.eurekaclient.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Legt Instanzen per API in einem Schritt an, ändert und entfernt sie.
+ * <p>
+ * Der Batch wird vollständig geprüft, bevor irgendetwas passiert: Ein abgelehnter Eintrag lässt den ganzen Batch
+ * unverändert zurückkommen. Danach wie beim inkrementellen Refresh: geänderte und entfernte Instanzen deregistrieren,
+ * den Store mit einem einzigen {@link ServiceInstanceStore#applyBatch} schreiben, neue und geänderte Instanzen
+ * registrieren. Die Eureka-Aufrufe laufen mit höchstens {@code lifecycle.batch.parallelism} gleichzeitig.
+ * <p>
+ * Geänderte Instanzen werden als neue Objekte mit der bisherigen ID gespeichert; die indizierten Objekte im Store
+ * bleiben unverändert. Prüfung und Store-Änderung laufen unter dem Monitor von {@link IncrementalRefreshService#exclusive},
+ * also nie gleichzeitig mit einem Refresh oder einem Reload durch den {@link ServicesFileWatcher}. Die Eureka-Aufrufe
+ * folgen erst danach, damit ein großer Batch Refresh und Reload nicht für die Dauer aller Aufrufe blockiert. Hat ein
+ * Refresh eine Instanz inzwischen ersetzt oder entfernt, wird sie nicht mehr gestartet.
+ */
+@Slf4j
+@Service
+public class InstanceBatchService {
+
+    private final ServiceInstanceStore store;
+    private final LifecycleManager lifecycleManager;
+    private final IncrementalRefreshService refreshService;
+
+    @Value("${lifecycle.batch.parallelism:32}")
+    private int parallelism;
+
+    public InstanceBatchService(ServiceInstanceStore store, LifecycleManager lifecycleManager,
+                                IncrementalRefreshService refreshService) {
+        this.store = store;
+        this.lifecycleManager = lifecycleManager;
+        this.refreshService = refreshService;
+    }
+
+    public InstanceBatchResponse apply(InstanceBatchRequest request) {
+        long start = System.nanoTime();
+        List<InstanceBatchItem> items = request.getItems();
+        int count = items.size();
+        ServiceInstance[] existing = new ServiceInstance[count];
+        ServiceInstance[] desired = new ServiceInstance[count];
+        String[] messages = new String[count];
+        List<Integer> stops = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        boolean[] started = new boolean[count];
+
+        if (!refreshService.exclusive(() -> write(items, existing, desired, messages, stops, starts, started))) {
+            List<InstanceBatchResponse.ItemResult> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(result(i, items.get(i), messages[i] != null ? "INVALID" : "SKIPPED", 0, messages[i]));
+            }
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.warn("[Batch] Batch mit {} Einträgen abgelehnt: {} ungültig", count,
+                    results.stream().filter(r -> r.message() != null).count());
+            return new InstanceBatchResponse(false, 0, count, durationMs, results);
+        }
+
+        long[] latencyNanos = new long[count];
+        runConcurrently(stops, i -> lifecycleManager.stopLifecycle(existing[i]), latencyNanos, messages);
+        runConcurrently(starts, i -> {
+            if (store.findById(desired[i].getId()) != desired[i]) {
+                messages[i] = "zwischenzeitlich durch einen Refresh geändert oder entfernt";
+                return;
+            }
+            lifecycleManager.startLifecycle(desired[i]);
+        }, latencyNanos, messages);
+
+        List<InstanceBatchResponse.ItemResult> results = new ArrayList<>(count);
+        int succeeded = 0;
+        for (int i = 0; i < count; i++) {
+            InstanceBatchItem item = items.get(i);
+            String outcome;
+            if (messages[i] != null) {
+                outcome = "FAILED";
+            } else if (item.getAction() == InstanceBatchItem.Action.DELETE) {
+                outcome = "DEREGISTERED";
+            } else if (!started[i]) {
+                outcome = "UNCHANGED";
+            } else {
+                outcome = lifecycleManager.isRunning(desired[i]) ? "REGISTERED" : "REGISTER_PENDING";
+            }
+            InstanceBatchResponse.ItemResult result = result(i, item, outcome,
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos[i]), messages[i]);
+            if (result.isOk()) {
+                succeeded++;
+            }
+            results.add(result);
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("[Batch] {} Einträge in {} ms: {} erfolgreich, {} deregistriert, {} registriert",
+                count, durationMs, succeeded, stops.size(), starts.size());
+        return new InstanceBatchResponse(true, succeeded, count - succeeded, durationMs, results);
+    }
+
+    /**
+     * Prüft den Batch und schreibt ihn mit einem einzigen {@link ServiceInstanceStore#applyBatch} in den Store.
+     * Füllt {@code stops} und {@code starts} mit den Einträgen, deren Lifecycle danach gestoppt bzw. gestartet wird.
+     */
+    private boolean write(List<InstanceBatchItem> items, ServiceInstance[] existing, ServiceInstance[] desired,
+                          String[] messages, List<Integer> stops, List<Integer> starts, boolean[] started) {
+        if (!validate(items, existing, messages)) {
+            return false;
+        }
+        List<ServiceInstance> saved = new ArrayList<>();
+        List<ServiceInstance> removed = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            InstanceBatchItem item = items.get(i);
+            switch (item.getAction()) {
+                case CREATE -> {
+                    desired[i] = item.toInstance();
+                    starts.add(i);
+                    started[i] = true;
+                    saved.add(desired[i]);
+                }
+                case UPDATE -> {
+                    desired[i] = item.toInstance().setId(existing[i].getId());
+                    if (!InventoryDiff.sameRegistration(existing[i], desired[i])) {
+                        stops.add(i);
+                        starts.add(i);
+                        started[i] = true;
+                        saved.add(desired[i]);
+                    }
+                }
+                case DELETE -> {
+                    stops.add(i);
+                    removed.add(existing[i]);
+                }
+            }
+        }
+        store.applyBatch(saved, removed);
+        return true;
+    }
+
+    /**
+     * Prüft den ganzen Batch gegen den Store: Namen nur einmal, CREATE nur für unbekannte, UPDATE und DELETE nur für
+     * vorhandene Services.
+     */
+    private boolean validate(List<InstanceBatchItem> items, ServiceInstance[] existing, String[] messages) {
+        boolean valid = true;
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            InstanceBatchItem item = items.get(i);
+            if (!names.add(ServiceInstanceStore.nameKey(item.getServiceName()))) {
+                messages[i] = "serviceName mehrfach im Batch";
+            } else {
+                existing[i] = store.findByServiceName(item.getServiceName());
+                if (item.getAction() == InstanceBatchItem.Action.CREATE && existing[i] != null) {
+                    messages[i] = "serviceName existiert bereits";
+                } else if (item.getAction() != InstanceBatchItem.Action.CREATE && existing[i] == null) {
+                    messages[i] = "serviceName nicht gefunden";
+                }
+            }
+            valid &= messages[i] == null;
+        }
+        return valid;
+    }
+
+    private void runConcurrently(List<Integer> indexes, IntConsumer task, long[] latencyNanos, String[] messages) {
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("lifecycle-batch-", 0).factory())) {
+            for (int index : indexes) {
+                executor.execute(() -> {
+                    try {
+                        permits.acquire();
+                        long start = System.nanoTime();
+                        try {
+                            task.accept(index);
+                        } finally {
+                            latencyNanos[index] += System.nanoTime() - start;
+                            permits.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        messages[index] = "unterbrochen";
+                    } catch (Exception e) {
+                        log.warn("[Batch] Fehler bei Eintrag {}: {}", index, e.getMessage());
+                        messages[index] = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    }
+                });
+            }
+        }
+    }
+
+    private static InstanceBatchResponse.ItemResult result(int index, InstanceBatchItem item, String outcome,
+                                                           long latencyMs, String message) {
+        return new InstanceBatchResponse.ItemResult(index, item.getAction(), item.getServiceName(), outcome,
+                latencyMs, message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.eurekaclient.services;
+
+/**
+ * Vorberechnete Request-Daten einer {@link ServiceInstance}: Namen, Pfade relativ zur Peer-URL und der
+ * UTF-8-kodierte Registrierungs-Payload. Wird nur bei Änderungen der Instanz neu gebaut.
+ */
+record InstanceDescriptor(
+        String serviceName,
+        String instanceId,
+        String appPath,
+        String instancePath,
+        byte[] payload
+) {
+}
@@ -0,0 +1,269 @@
+package com.example.eurekaclient.services;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zustand einer einzelnen Instanz im {@link LifecycleManager}.
+ * <p>
+ * Ein Permit sorgt dafür, dass pro Instanz höchstens ein Eureka-Aufruf gleichzeitig läuft. Es gibt genau einen
+ * periodischen Heartbeat-Task und höchstens einen ausstehenden Retry. Zustandswechsel erfolgen unter dem Monitor
+ * des Objekts; nach {@link State#STOPPED} werden alle noch ausstehenden Callbacks verworfen.
+ */
+final class InstanceLifecycle {
+
+    enum State { REGISTERING, UP, RENEWING, BACKOFF, STOPPED }
+
+    enum Operation { REGISTER, HEARTBEAT }
+
+    private final ServiceInstance instance;
+    private final Semaphore permit = new Semaphore(1);
+
+    private volatile State state = State.REGISTERING;
+    private volatile boolean registered;
+    private volatile long renewedAtMillis;
+    private volatile long registeredAtMillis;
+
+    private ScheduledTask heartbeatTask;
+    private ScheduledTask retryTask;
+    private Operation retryOperation;
+    private int attempt;
+    private long previousDelay;
+    private int retryStarts;
+
+    InstanceLifecycle(ServiceInstance instance) {
+        this.instance = instance;
+    }
+
+    ServiceInstance instance() {
+        return instance;
+    }
+
+    State state() {
+        return state;
+    }
+
+    boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Zeitpunkt der letzten erfolgreichen Registrierung oder Erneuerung (Epoch-Millis).
+     */
+    long renewedAtMillis() {
+        return renewedAtMillis;
+    }
+
+    /**
+     * Zeitpunkt der letzten erfolgreichen Registrierung oder Wiederaufnahme (Epoch-Millis).
+     */
+    long registeredAtMillis() {
+        return registeredAtMillis;
+    }
+
+    boolean isStopped() {
+        return state == State.STOPPED;
+    }
+
+    /**
+     * Reserviert den einzigen Aufruf-Slot und wechselt nach {@code next}, sofern die Instanz in einem
+     * der erwarteten Zustände ist.
+     */
+    synchronized boolean begin(State next, State... expected) {
+        if (!matches(expected) || !permit.tryAcquire()) {
+            return false;
+        }
+        state = next;
+        return true;
+    }
+
+    void end() {
+        permit.release();
+    }
+
+    /**
+     * Wartet auf einen laufenden Aufruf, damit die Deregistrierung nicht parallel dazu läuft.
+     */
+    boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        return permit.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void registered() {
+        if (state == State.STOPPED) {
+            return;
+        }
+        registered = true;
+        renewedAtMillis = System.currentTimeMillis();
+        registeredAtMillis = renewedAtMillis;
+        state = State.UP;
+        clearRetry();
+    }
+
+    /**
+     * Warmstart: Eureka kennt die Instanz laut Lease-Snapshot noch, es wird direkt mit Heartbeats fortgesetzt.
+     */
+    synchronized void resumed(long renewedAt) {
+        if (state == State.STOPPED) {
+            return;
+        }
+        registered = true;
+        renewedAtMillis = renewedAt;
+        registeredAtMillis = System.currentTimeMillis();
+        state = State.UP;
+        clearRetry();
+    }
+
+    synchronized void renewed() {
+        if (state == State.STOPPED) {
+            return;
+        }
+        renewedAtMillis = System.currentTimeMillis();
+        state = State.UP;
+        clearRetry();
+    }
+
+    /**
+     * Eureka kennt die Instanz nicht mehr: zurück nach REGISTERING, der periodische Heartbeat bleibt bestehen.
+     */
+    synchronized void notFound() {
+        if (state == State.STOPPED) {
+            return;
+        }
+        registered = false;
+        state = State.REGISTERING;
+        clearRetry();
+    }
+
+    /**
+     * Der Abgleich mit der Registry hat eine Abweichung gefunden: zurück nach REGISTERING, aber nur aus UP,
+     * damit kein laufender Heartbeat, Retry oder Registrierungsversuch überholt wird.
+     *
+     * @return {@code false}, wenn die Instanz nicht in UP war
+     */
+    synchronized boolean reregister() {
+        if (state != State.UP) {
+            return false;
+        }
+        registered = false;
+        state = State.REGISTERING;
+        clearRetry();
+        return true;
+    }
+
+    synchronized boolean hasHeartbeat() {
+        return heartbeatTask != null;
+    }
+
+    synchronized void heartbeat(ScheduledTask task) {
+        if (state == State.STOPPED) {
+            task.cancel();
+            return;
+        }
+        heartbeatTask = task;
+    }
+
+    /**
+     * Wechselt nach BACKOFF und merkt sich den nächsten Versuch.
+     *
+     * @return {@code false}, wenn die Instanz inzwischen gestoppt wurde
+     */
+    synchronized boolean backoff(Operation operation, int nextAttempt, long delay) {
+        if (state == State.STOPPED) {
+            return false;
+        }
+        state = State.BACKOFF;
+        retryOperation = operation;
+        attempt = nextAttempt;
+        previousDelay = delay;
+        return true;
+    }
+
+    /**
+     * Anzahl angelaufener Retries; vor dem Einplanen gelesen und an {@link #retry} übergeben.
+     */
+    synchronized int retryStarts() {
+        return retryStarts;
+    }
+
+    /**
+     * Merkt sich das Handle des eingeplanten Retries, sofern dieser nicht schon angelaufen ist.
+     *
+     * @param startsBefore Wert von {@link #retryStarts()} vor dem Einplanen
+     */
+    synchronized void retry(ScheduledTask task, int startsBefore) {
+        if (state == State.STOPPED) {
+            task.cancel();
+            return;
+        }
+        if (retryStarts == startsBefore) {
+            retryTask = task;
+        }
+    }
+
+    synchronized void retryStarted() {
+        retryTask = null;
+        retryStarts++;
+    }
+
+    synchronized boolean hasPendingRetry() {
+        return retryTask != null;
+    }
+
+    synchronized Operation retryOperation() {
+        return retryOperation;
+    }
+
+    synchronized int attempt() {
+        return attempt;
+    }
+
+    synchronized long previousDelay() {
+        return previousDelay;
+    }
+
+    /**
+     * Gibt nach erfolglosen Heartbeat-Retries auf; der periodische Heartbeat übernimmt wieder.
+     */
+    synchronized void giveUpRetry() {
+        if (state == State.STOPPED) {
+            return;
+        }
+        state = registered ? State.UP : State.BACKOFF;
+        clearRetry();
+    }
+
+    /**
+     * @return {@code false}, wenn die Instanz bereits gestoppt war
+     */
+    synchronized boolean stop() {
+        if (state == State.STOPPED) {
+            return false;
+        }
+        state = State.STOPPED;
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel();
+            heartbeatTask = null;
+        }
+        if (retryTask != null) {
+            retryTask.cancel();
+        }
+        clearRetry();
+        return true;
+    }
+
+    private void clearRetry() {
+        retryTask = null;
+        retryOperation = null;
+        attempt = 0;
+        previousDelay = 0;
+    }
+
+    private boolean matches(State... expected) {
+        for (State s : expected) {
+            if (state == s) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
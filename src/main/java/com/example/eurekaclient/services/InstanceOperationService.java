@@ -0,0 +1,253 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Führt Updates asynchron aus, damit Deregistrierung und Registrierung bei langsamem Eureka keine Jetty-Threads
+ * blockieren.
+ * <p>
+ * Operationen landen in einer begrenzten Queue ({@code lifecycle.operations.queue-capacity}) und werden von
+ * {@code lifecycle.operations.workers} virtuellen Threads abgearbeitet. Ist die Queue voll, wird sofort abgelehnt
+ * statt zu warten. Der Status bleibt nach Abschluss {@code lifecycle.operations.retention-seconds} abrufbar.
+ * <p>
+ * Synchrone und asynchrone Updates laufen über {@link #update} unter dem Monitor von
+ * {@link IncrementalRefreshService#exclusive}: nie gleichzeitig mit einem Refresh, einem Batch oder einem anderen
+ * Update. Die geänderte Registrierung wird als neues Objekt mit der bisherigen ID gespeichert.
+ */
+@Slf4j
+@Service
+public class InstanceOperationService {
+
+    private final ServiceInstanceStore store;
+    private final LifecycleManager lifecycleManager;
+    private final IncrementalRefreshService refreshService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Queue<Operation> finished = new ConcurrentLinkedQueue<>();
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Timer queueTimer;
+    private final Timer runTimer;
+
+    @Value("${lifecycle.operations.workers:8}")
+    private int workers;
+
+    @Value("${lifecycle.operations.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${lifecycle.operations.retention-seconds:600}")
+    private long retentionSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    public InstanceOperationService(ServiceInstanceStore store, LifecycleManager lifecycleManager,
+                                    IncrementalRefreshService refreshService, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.lifecycleManager = lifecycleManager;
+        this.refreshService = refreshService;
+        this.meterRegistry = meterRegistry;
+
+        this.acceptedCounter = Counter.builder("eureka_operations_total")
+                .description("Angenommene und wegen voller Queue abgelehnte asynchrone Operationen")
+                .tag("result", "accepted")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("eureka_operations_total")
+                .description("Angenommene und wegen voller Queue abgelehnte asynchrone Operationen")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.queueTimer = Timer.builder("eureka_operation_duration")
+                .description("Wartezeit in der Queue und Ausführungsdauer asynchroner Operationen")
+                .tag("phase", "queued")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("eureka_operation_duration")
+                .description("Wartezeit in der Queue und Ausführungsdauer asynchroner Operationen")
+                .tag("phase", "running")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, workers);
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofVirtual().name("instance-op-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("eureka_operations_queued", executor, e -> e.getQueue().size())
+                .description("Asynchrone Operationen, die auf einen Worker warten")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            int dropped = executor.shutdownNow().size();
+            if (dropped > 0) {
+                log.warn("[Operations] {} wartende Operationen beim Herunterfahren verworfen", dropped);
+            }
+        }
+    }
+
+    /**
+     * Nimmt ein Update zur asynchronen Ausführung an.
+     *
+     * @return Status der neuen Operation oder {@code null}, wenn der Service nicht konfiguriert ist
+     * @throws RejectedExecutionException wenn die Queue voll ist
+     */
+    public OperationStatus submitUpdate(UpdateInstanceRequest request) {
+        if (store.findByServiceName(request.getServiceName()) == null) {
+            return null;
+        }
+        expireFinished();
+
+        Operation operation = new Operation(UUID.randomUUID().toString(), "UPDATE", request.getServiceName());
+        operations.put(operation.id, operation);
+        try {
+            executor.execute(() -> runUpdate(operation, request));
+        } catch (RejectedExecutionException e) {
+            operations.remove(operation.id);
+            rejectedCounter.increment();
+            log.warn("[Operations] Queue voll ({} Einträge) – Update für {} abgelehnt",
+                    executor.getQueue().size(), request.getServiceName());
+            throw e;
+        }
+        acceptedCounter.increment();
+        log.debug("[Operations] Update für {} angenommen: {}", request.getServiceName(), operation.id);
+        return operation.snapshot();
+    }
+
+    /**
+     * Deregistriert die bisherige Instanz, speichert eine neue mit derselben ID und den geänderten Feldern und
+     * registriert sie.
+     *
+     * @return die neue Instanz oder {@code null}, wenn der Service nicht konfiguriert ist
+     */
+    public ServiceInstance update(UpdateInstanceRequest request) {
+        return refreshService.exclusive(() -> {
+            ServiceInstance existing = store.findByServiceName(request.getServiceName());
+            if (existing == null) {
+                log.warn("[Operations] Update: Instanz {} nicht gefunden", request.getServiceName());
+                return null;
+            }
+
+            ServiceInstance updated = updated(existing, request);
+            lifecycleManager.stopLifecycle(existing);
+            store.save(updated);
+            lifecycleManager.startLifecycle(updated);
+
+            log.info("[Operations] Instanz {} aktualisiert: Host={}, IP={}, SecurePort={}, SSL={}",
+                    request.getServiceName(),
+                    updated.getHostName(),
+                    updated.getIpAddr(),
+                    updated.getSecurePort(),
+                    updated.isSslPreferred());
+            return updated;
+        });
+    }
+
+    private static ServiceInstance updated(ServiceInstance existing, UpdateInstanceRequest request) {
+        ServiceInstance updated = new ServiceInstance().setId(existing.getId());
+        InventoryDiff.copyRegistration(existing, updated);
+
+        if (request.getNewHostName() != null && !request.getNewHostName().isBlank()) {
+            updated.setHostName(request.getNewHostName().trim());
+        }
+        if (request.getNewIpAddress() != null && !request.getNewIpAddress().isBlank()) {
+            updated.setIpAddr(request.getNewIpAddress().trim());
+        }
+        if (request.getHttpPort() >= 1 && request.getHttpPort() <= 65535) {
+            updated.setHttpPort(request.getHttpPort());
+        }
+        if (request.getSecurePort() >= 0 && request.getSecurePort() <= 65535) {
+            updated.setSecurePort(request.getSecurePort());
+        }
+        updated.setSslPreferred(request.isSslPreferred());
+        return updated;
+    }
+
+    public OperationStatus find(String id) {
+        Operation operation = operations.get(id);
+        return operation != null ? operation.snapshot() : null;
+    }
+
+    private void runUpdate(Operation operation, UpdateInstanceRequest request) {
+        operation.startedAtMillis = System.currentTimeMillis();
+        operation.state = "RUNNING";
+        queueTimer.record(operation.startedAtMillis - operation.submittedAtMillis, TimeUnit.MILLISECONDS);
+        try {
+            ServiceInstance instance = update(request);
+            if (instance == null) {
+                operation.finish("FAILED", "ServiceInstance '" + request.getServiceName() + "' nicht gefunden.");
+            } else {
+                operation.finish("SUCCEEDED",
+                        "Instanz '" + request.getServiceName() + "' erfolgreich aktualisiert und neu gestartet.");
+            }
+        } catch (Exception e) {
+            log.warn("[Operations] Update für {} fehlgeschlagen: {}", request.getServiceName(), e.getMessage());
+            operation.finish("FAILED", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+        runTimer.record(operation.finishedAtMillis - operation.startedAtMillis, TimeUnit.MILLISECONDS);
+        finished.add(operation);
+    }
+
+    /**
+     * Entfernt abgeschlossene Operationen nach Ablauf der Aufbewahrungszeit. {@code finished} ist nach Ende sortiert,
+     * es genügt also, vorne abzuräumen.
+     */
+    private synchronized void expireFinished() {
+        long expiredBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(retentionSeconds);
+        Operation head;
+        while ((head = finished.peek()) != null && head.finishedAtMillis < expiredBefore) {
+            operations.remove(finished.poll().id);
+        }
+    }
+
+    private static final class Operation {
+
+        final String id;
+        final String type;
+        final String serviceName;
+        final long submittedAtMillis = System.currentTimeMillis();
+        volatile String state = "QUEUED";
+        volatile long startedAtMillis;
+        volatile long finishedAtMillis;
+        volatile String message;
+
+        Operation(String id, String type, String serviceName) {
+            this.id = id;
+            this.type = type;
+            this.serviceName = serviceName;
+        }
+
+        void finish(String state, String message) {
+            this.message = message;
+            this.finishedAtMillis = System.currentTimeMillis();
+            this.state = state;
+        }
+
+        OperationStatus snapshot() {
+            return new OperationStatus(id, type, serviceName, state, submittedAtMillis, startedAtMillis,
+                    finishedAtMillis, message);
+        }
+    }
+}
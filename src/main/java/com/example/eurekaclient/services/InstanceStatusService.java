@@ -0,0 +1,129 @@
+package com.example.eurekaclient.services;
+
+import com.example.eurekaclient.services.LifecycleJournal.Type;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Setzt den Eureka-Status aller ausgewählten Instanzen über den Status-Override, mit höchstens
+ * {@code lifecycle.status.parallelism} gleichzeitigen Aufrufen.
+ * <p>
+ * Der Lifecycle läuft dabei unverändert weiter, Heartbeats werden weder angehalten noch neu registriert. Der
+ * konfigurierte Status in services.json bleibt unverändert; der Override lebt bei Eureka.
+ */
+@Slf4j
+@Service
+public class InstanceStatusService {
+
+    private final ServiceInstanceStore store;
+    private final LifecycleManager lifecycleManager;
+    private final EurekaClientService eurekaClientService;
+    private final LifecycleJournal journal;
+
+    @Value("${lifecycle.status.parallelism:32}")
+    private int parallelism;
+
+    public InstanceStatusService(ServiceInstanceStore store, LifecycleManager lifecycleManager,
+                                 EurekaClientService eurekaClientService, LifecycleJournal journal) {
+        this.store = store;
+        this.lifecycleManager = lifecycleManager;
+        this.eurekaClientService = eurekaClientService;
+        this.journal = journal;
+    }
+
+    public BulkStatusResponse changeStatus(BulkStatusRequest request) {
+        long start = System.nanoTime();
+        String status = request.getStatus().trim().toUpperCase(Locale.ROOT);
+
+        List<BulkStatusResponse.InstanceResult> unresolved = new ArrayList<>();
+        Map<Long, ServiceInstance> selected = new LinkedHashMap<>();
+        if (request.getServiceNames() != null) {
+            for (String name : request.getServiceNames()) {
+                ServiceInstance instance = store.findByServiceName(name);
+                if (instance == null) {
+                    unresolved.add(new BulkStatusResponse.InstanceResult(name, null, "UNKNOWN_SERVICE"));
+                } else {
+                    selected.putIfAbsent(instance.getId(), instance);
+                }
+            }
+        }
+        if (request.getServiceNamePattern() != null && !request.getServiceNamePattern().isBlank()) {
+            Pattern pattern = globPattern(request.getServiceNamePattern().trim());
+            for (ServiceInstance instance : store.getInstances()) {
+                if (instance.getServiceName() != null && pattern.matcher(instance.getServiceName()).matches()) {
+                    selected.putIfAbsent(instance.getId(), instance);
+                }
+            }
+        }
+
+        List<ServiceInstance> targets = new ArrayList<>(selected.size());
+        for (ServiceInstance instance : selected.values()) {
+            if (!lifecycleManager.isRunning(instance)) {
+                unresolved.add(new BulkStatusResponse.InstanceResult(instance.getServiceName(),
+                        eurekaClientService.generateInstanceId(instance), "NOT_RUNNING"));
+            } else {
+                targets.add(instance);
+            }
+        }
+
+        BulkStatusResponse.InstanceResult[] changed = new BulkStatusResponse.InstanceResult[targets.size()];
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("lifecycle-status-", 0).factory())) {
+            for (int i = 0; i < targets.size(); i++) {
+                int index = i;
+                executor.execute(() -> {
+                    ServiceInstance instance = targets.get(index);
+                    EurekaCallResult result = EurekaCallResult.RETRYABLE_ERROR;
+                    try {
+                        permits.acquire();
+                        try {
+                            result = eurekaClientService.changeStatus(instance, status);
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    journal.record(instance.getId(), Type.STATUS_CHANGED, result.ordinal());
+                    changed[index] = new BulkStatusResponse.InstanceResult(instance.getServiceName(),
+                            eurekaClientService.generateInstanceId(instance), result.name());
+                });
+            }
+        }
+
+        List<BulkStatusResponse.InstanceResult> results = new ArrayList<>(List.of(changed));
+        results.addAll(unresolved);
+        int succeeded = (int) results.stream().filter(r -> EurekaCallResult.OK.name().equals(r.outcome())).count();
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("[Status] Status {} für {} von {} Instanzen gesetzt in {} ms",
+                status, succeeded, results.size(), durationMs);
+        return new BulkStatusResponse(status, succeeded, results.size() - succeeded, durationMs, results);
+    }
+
+    /**
+     * Glob mit {@code *} als Platzhalter, ohne Beachtung der Groß-/Kleinschreibung.
+     */
+    private static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : glob.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+}
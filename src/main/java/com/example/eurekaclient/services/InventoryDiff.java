@@ -0,0 +1,74 @@
+package com.example.eurekaclient.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Unterschied zwischen den Instanzen im Store und einer neu eingelesenen services.json.
+ * Instanzen werden wie im Store über den normalisierten Service-Namen zugeordnet.
+ */
+record InventoryDiff(
+        List<ServiceInstance> added,
+        List<ServiceInstance> removed,
+        List<Change> changed,
+        List<ServiceInstance> unchanged
+) {
+
+    record Change(ServiceInstance existing, ServiceInstance desired) {
+    }
+
+    static InventoryDiff compute(Collection<ServiceInstance> current, Collection<ServiceInstance> desired) {
+        Map<String, ServiceInstance> desiredByName = new LinkedHashMap<>();
+        for (ServiceInstance instance : desired) {
+            // Doppelte Namen: wie beim Speichern gewinnt der letzte Eintrag
+            desiredByName.put(ServiceInstanceStore.nameKey(instance.getServiceName()), instance);
+        }
+
+        List<ServiceInstance> removed = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        List<ServiceInstance> unchanged = new ArrayList<>();
+
+        for (ServiceInstance existing : current) {
+            ServiceInstance wanted = desiredByName.remove(ServiceInstanceStore.nameKey(existing.getServiceName()));
+            if (wanted == null) {
+                removed.add(existing);
+            } else if (sameRegistration(existing, wanted)) {
+                unchanged.add(existing);
+            } else {
+                changed.add(new Change(existing, wanted));
+            }
+        }
+
+        return new InventoryDiff(new ArrayList<>(desiredByName.values()), removed, changed, unchanged);
+    }
+
+    boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    static boolean sameRegistration(ServiceInstance a, ServiceInstance b) {
+        return a.getHttpPort() == b.getHttpPort()
+                && a.getSecurePort() == b.getSecurePort()
+                && a.isSslPreferred() == b.isSslPreferred()
+                && Objects.equals(a.getServiceName(), b.getServiceName())
+                && Objects.equals(a.getHostName(), b.getHostName())
+                && Objects.equals(a.getIpAddr(), b.getIpAddr())
+                && Objects.equals(a.getStatus(), b.getStatus())
+                && Objects.equals(a.getDataCenterInfoName(), b.getDataCenterInfoName());
+    }
+
+    static void copyRegistration(ServiceInstance from, ServiceInstance to) {
+        to.setServiceName(from.getServiceName());
+        to.setHostName(from.getHostName());
+        to.setIpAddr(from.getIpAddr());
+        to.setHttpPort(from.getHttpPort());
+        to.setSecurePort(from.getSecurePort());
+        to.setSslPreferred(from.isSslPreferred());
+        to.setStatus(from.getStatus());
+        to.setDataCenterInfoName(from.getDataCenterInfoName());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.eurekaclient.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot der registrierten Instanzen für einen Warmstart: Instance-ID, Fingerprint des Payloads und Zeitpunkt
+ * der letzten erfolgreichen Erneuerung.
+ * <p>
+ * Der Snapshot wird über eine memory-mapped Datei geschrieben, zuerst als {@code .tmp} und dann atomar umbenannt.
+ * Beim Start werden Leases, die laut Snapshot noch gültig sind und deren Payload unverändert ist, einmalig
+ * zur Wiederaufnahme angeboten ({@link #take}).
+ * <p>
+ * Schreibvorgänge sind serialisiert, damit der periodische und der abschließende Snapshot beim Herunterfahren nicht
+ * gleichzeitig in die {@code .tmp}-Datei schreiben. Nach {@link #writeFinal} werden periodische Snapshots ignoriert.
+ */
+@Slf4j
+@Component
+public class LeaseSnapshot {
+
+    static final int MAGIC = 0x454c5331; // "ELS1"
+    static final int HEADER = 20;
+
+    public record Lease(String instanceId, long payloadHash, long renewedAtMillis) { }
+
+    private final boolean enabled;
+    private final Path file;
+    private final long leaseMillis;
+    private final Map<String, Lease> restored = new ConcurrentHashMap<>();
+    private boolean closed;
+
+    public LeaseSnapshot(@Value("${lifecycle.warm-restart.enabled:false}") boolean enabled,
+                         @Value("${lifecycle.warm-restart.file:./lease-snapshot.bin}") String file,
+                         @Value("${lifecycle.warm-restart.lease-seconds:90}") long leaseSeconds) {
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.leaseMillis = leaseSeconds * 1000;
+        if (enabled) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            log.info("[Snapshot] Kein Lease-Snapshot unter {} – Kaltstart", file);
+            return;
+        }
+        try {
+            List<Lease> leases = read(file);
+            long now = System.currentTimeMillis();
+            for (Lease lease : leases) {
+                if (now - lease.renewedAtMillis() < leaseMillis) {
+                    restored.put(lease.instanceId(), lease);
+                }
+            }
+            log.info("[Snapshot] {} von {} Leases aus {} noch gültig", restored.size(), leases.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[Snapshot] Lease-Snapshot {} nicht lesbar, Kaltstart: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Liefert die gespeicherte Lease genau einmal, sofern sie noch gültig ist und der Payload übereinstimmt.
+     */
+    public Lease take(String instanceId, long payloadHash) {
+        Lease lease = restored.remove(instanceId);
+        if (lease == null || lease.payloadHash() != payloadHash
+                || System.currentTimeMillis() - lease.renewedAtMillis() >= leaseMillis) {
+            return null;
+        }
+        return lease;
+    }
+
+    public synchronized void write(Collection<Lease> leases) {
+        if (closed) {
+            log.debug("[Snapshot] Abschließender Snapshot bereits geschrieben – periodischer Snapshot entfällt");
+            return;
+        }
+        writeFile(leases);
+    }
+
+    /**
+     * Letzter Snapshot beim Herunterfahren; ein danach noch laufender periodischer Snapshot überschreibt ihn nicht.
+     */
+    public synchronized void writeFinal(Collection<Lease> leases) {
+        writeFile(leases);
+        closed = true;
+    }
+
+    private void writeFile(Collection<Lease> leases) {
+        List<byte[]> ids = new ArrayList<>(leases.size());
+        long size = HEADER;
+        for (Lease lease : leases) {
+            byte[] id = lease.instanceId().getBytes(StandardCharsets.UTF_8);
+            ids.add(id);
+            size += 8 + 8 + 2 + id.length;
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(tmp);
+            try (FileChannel channel = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(leases.size()).putLong(System.currentTimeMillis()).putInt(0);
+                int i = 0;
+                for (Lease lease : leases) {
+                    byte[] id = ids.get(i++);
+                    buffer.putLong(lease.renewedAtMillis()).putLong(lease.payloadHash())
+                            .putShort((short) id.length).put(id);
+                }
+                buffer.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("[Snapshot] {} Leases nach {} geschrieben", leases.size(), file);
+        } catch (IOException e) {
+            log.warn("[Snapshot] Lease-Snapshot {} konnte nicht geschrieben werden: {}", file, e.getMessage());
+        }
+    }
+
+    static List<Lease> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC) {
+                throw new IOException("Kein Lease-Snapshot: " + file);
+            }
+            int count = buffer.getInt();
+            buffer.getLong();
+            buffer.getInt();
+            List<Lease> leases = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long renewedAt = buffer.getLong();
+                long payloadHash = buffer.getLong();
+                byte[] id = new byte[buffer.getShort() & 0xffff];
+                buffer.get(id);
+                leases.add(new Lease(new String(id, StandardCharsets.UTF_8), payloadHash, renewedAt));
+            }
+            return leases;
+        }
+    }
+
+    /**
+     * 64-Bit-FNV-1a über den Registrierungs-Payload; ändert sich z. B. IP oder Port, wird neu registriert.
+     */
+    static long fingerprint(byte[] payload) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : payload) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
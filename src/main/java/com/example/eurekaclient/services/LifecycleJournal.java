@@ -0,0 +1,281 @@
+package com.example.eurekaclient.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal der Lifecycle-Ereignisse aller Instanzen in einem vorab allokierten Ringpuffer.
+ * <p>
+ * Ein Eintrag besteht nur aus primitiven Feldern (Zeit, Instance-ID, Typ, Detail) – das Schreiben allokiert nichts
+ * und nimmt keine Sperre. Ist der Puffer voll, überschreibt der neueste Eintrag den ältesten. Leser erkennen
+ * halb geschriebene oder inzwischen überschriebene Slots an der Sequenznummer und überspringen sie.
+ * <p>
+ * Mit {@code lifecycle.journal.spill-file} wird der Ring zusätzlich in eine memory-mapped Datei gespiegelt.
+ * Die Seiten schreibt das Betriebssystem auch nach einem Absturz der JVM zurück; {@link #readSpill(Path)}
+ * liest die Datei für die Post-mortem-Analyse.
+ * <p>
+ * Statt jedes Heartbeats loggt das Journal alle {@code summary-interval-seconds} eine Zusammenfassung.
+ */
+@Slf4j
+@Component
+public class LifecycleJournal {
+
+    public enum Type {
+        REGISTERED, REGISTER_FAILED, HEARTBEAT, HEARTBEAT_FAILED, NOT_FOUND,
+        RETRY_SCHEDULED, PARKED, SHED, GAVE_UP, DEREGISTERED, RESUMED, MISSING, STATUS_DRIFT, STATUS_CHANGED
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    static final int SPILL_MAGIC = 0x454a524e; // "EJRN"
+    static final int SPILL_HEADER = 16;
+    static final int SPILL_RECORD = 32;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray published;
+    private final long[] times;
+    private final long[] instanceIds;
+    private final int[] details;
+    private final byte[] types;
+
+    private final LongAdder[] totals = new LongAdder[TYPES.length];
+    private final long[] lastSummary = new long[TYPES.length];
+
+    private final MappedByteBuffer spill;
+
+    @Value("${lifecycle.journal.summary-interval-seconds:60}")
+    private long summaryIntervalSeconds;
+
+    private ScheduledExecutorService summarizer;
+
+    public LifecycleJournal(@Value("${lifecycle.journal.capacity:65536}") int capacity,
+                            @Value("${lifecycle.journal.spill-file:}") String spillFile) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.published = new AtomicLongArray(this.capacity);
+        this.times = new long[this.capacity];
+        this.instanceIds = new long[this.capacity];
+        this.details = new int[this.capacity];
+        this.types = new byte[this.capacity];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new LongAdder();
+        }
+        this.spill = spillFile == null || spillFile.isBlank() ? null : mapSpill(Path.of(spillFile.trim()), this.capacity);
+    }
+
+    private static MappedByteBuffer mapSpill(Path file, int capacity) {
+        long size = SPILL_HEADER + (long) capacity * SPILL_RECORD;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            // Inhalte eines früheren Laufs verwerfen, sonst mischen sich alte Sequenzen in die Auswertung
+            for (int offset = SPILL_HEADER; offset < size; offset += SPILL_RECORD) {
+                buffer.putLong(offset, 0L);
+            }
+            buffer.putInt(0, SPILL_MAGIC);
+            buffer.putInt(4, capacity);
+            buffer.putInt(8, SPILL_RECORD);
+            log.info("[Journal] Spiegele {} Einträge nach {}", capacity, file);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal-Datei " + file + " kann nicht angelegt werden", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (summaryIntervalSeconds <= 0) {
+            return;
+        }
+        summarizer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lifecycle-journal-summary");
+            t.setDaemon(true);
+            return t;
+        });
+        summarizer.scheduleAtFixedRate(this::logSummary, summaryIntervalSeconds, summaryIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (summarizer != null) {
+            summarizer.shutdownNow();
+        }
+        if (spill != null) {
+            spill.force();
+        }
+    }
+
+    /**
+     * Schreibt ein Ereignis. {@code detail} ist je nach Typ die Versuchsnummer oder die Wartezeit in ms.
+     */
+    public void record(long instanceId, Type type, int detail) {
+        long seq = sequence.getAndIncrement();
+        int slot = (int) (seq & mask);
+        long now = System.currentTimeMillis();
+
+        // 0 markiert den Slot als ungültig, solange geschrieben wird. Der volatile Store hält nur vorherige Stores
+        // zurück – ohne Fence dürften die folgenden Feld-Stores vor der Invalidierung sichtbar werden
+        published.set(slot, 0L);
+        VarHandle.storeStoreFence();
+        times[slot] = now;
+        instanceIds[slot] = instanceId;
+        details[slot] = detail;
+        types[slot] = (byte) type.ordinal();
+        published.set(slot, seq + 1);
+
+        totals[type.ordinal()].increment();
+
+        if (spill != null) {
+            int offset = SPILL_HEADER + slot * SPILL_RECORD;
+            spill.putLong(offset, 0L);
+            VarHandle.storeStoreFence();
+            spill.putLong(offset + 8, now);
+            spill.putLong(offset + 16, instanceId);
+            spill.putInt(offset + 24, detail);
+            spill.put(offset + 28, (byte) type.ordinal());
+            VarHandle.storeStoreFence();
+            spill.putLong(offset, seq + 1);
+        }
+    }
+
+    /**
+     * Die letzten {@code limit} Ereignisse, neueste zuerst.
+     */
+    public List<Event> recent(int limit) {
+        return collect(-1, limit);
+    }
+
+    /**
+     * Die letzten {@code limit} Ereignisse einer Instanz, neueste zuerst.
+     */
+    public List<Event> forInstance(long instanceId, int limit) {
+        return collect(instanceId, limit);
+    }
+
+    private List<Event> collect(long instanceId, int limit) {
+        List<Event> events = new ArrayList<>(Math.min(Math.max(limit, 0), 256));
+        long last = sequence.get() - 1;
+        long first = Math.max(0, last - capacity + 1);
+        for (long seq = last; seq >= first && events.size() < limit; seq--) {
+            int slot = (int) (seq & mask);
+            if (published.get(slot) != seq + 1) {
+                continue;
+            }
+            long time = times[slot];
+            long id = instanceIds[slot];
+            int detail = details[slot];
+            Type type = TYPES[types[slot]];
+            VarHandle.loadLoadFence();
+            if (published.get(slot) != seq + 1) {
+                // Während des Lesens überschrieben
+                continue;
+            }
+            if (instanceId < 0 || id == instanceId) {
+                events.add(new Event(seq, time, id, type, detail));
+            }
+        }
+        return events;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long total(Type type) {
+        return totals[type.ordinal()].sum();
+    }
+
+    /**
+     * Eine Zeile pro Intervall statt einer Zeile pro Heartbeat. Ohne Ereignisse im Intervall wird nichts geloggt.
+     */
+    void logSummary() {
+        long[] delta = new long[TYPES.length];
+        long sum = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            long current = totals[i].sum();
+            delta[i] = current - lastSummary[i];
+            lastSummary[i] = current;
+            sum += delta[i];
+        }
+        if (sum == 0) {
+            return;
+        }
+        log.info("[Journal] Letzte {} s: Heartbeats {} ok / {} fehlgeschlagen, Registrierungen {} ok / {} fehlgeschlagen, "
+                        + "404 {}, Retries {}, geparkt {}, verworfen {}, aufgegeben {}, deregistriert {}",
+                summaryIntervalSeconds,
+                delta[Type.HEARTBEAT.ordinal()], delta[Type.HEARTBEAT_FAILED.ordinal()],
+                delta[Type.REGISTERED.ordinal()], delta[Type.REGISTER_FAILED.ordinal()],
+                delta[Type.NOT_FOUND.ordinal()], delta[Type.RETRY_SCHEDULED.ordinal()],
+                delta[Type.PARKED.ordinal()], delta[Type.SHED.ordinal()],
+                delta[Type.GAVE_UP.ordinal()], delta[Type.DEREGISTERED.ordinal()]);
+    }
+
+    /**
+     * Liest eine gespiegelte Journal-Datei, älteste Einträge zuerst.
+     */
+    public static List<Event> readSpill(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.limit() < SPILL_HEADER || buffer.getInt(0) != SPILL_MAGIC) {
+            throw new IOException("Keine Journal-Datei: " + file);
+        }
+        int capacity = buffer.getInt(4);
+        int recordSize = buffer.getInt(8);
+        List<Event> events = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = SPILL_HEADER + slot * recordSize;
+            if (offset + recordSize > buffer.limit()) {
+                break;
+            }
+            long published = buffer.getLong(offset);
+            int ordinal = buffer.get(offset + 28);
+            if (published == 0 || ordinal < 0 || ordinal >= TYPES.length) {
+                continue;
+            }
+            events.add(new Event(published - 1, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                    TYPES[ordinal], buffer.getInt(offset + 24)));
+        }
+        events.sort(Comparator.comparingLong(Event::sequence));
+        return events;
+    }
+
+    public record Event(long sequence, long timestamp, long instanceId, Type type, int detail) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sequence", sequence);
+            map.put("time", Instant.ofEpochMilli(timestamp).toString());
+            map.put("instanceId", instanceId);
+            map.put("type", type.name());
+            map.put("detail", detail);
+            return map;
+        }
+    }
+}
@@ -5,15 +5,28 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.eurekaclient.services.InstanceLifecycle.Operation;
+import com.example.eurekaclient.services.InstanceLifecycle.State;
+import com.example.eurekaclient.services.LifecycleJournal.Type;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class LifecycleManager {
@@ -22,16 +35,27 @@ public class LifecycleManager {
 
     private final EurekaClientService eurekaClientService;
     private final ServiceInstanceStore serviceInstanceStore;
-    private final ScheduledExecutorService scheduler;
+    private final LifecycleScheduler scheduler;
+    private final BackoffPolicy backoffPolicy;
+    private final RetryBudget retryBudget;
+    private final LifecycleJournal journal;
+    private final LeaseSnapshot leaseSnapshot;
 
     private final Counter registrationsCounter;
     private final Counter registrationsFailedCounter;
     private final Counter heartbeatsCounter;
     private final Counter heartbeatsFailedCounter;
 
-    private final Map<Long, ScheduledFuture<?>> runningTasks = new ConcurrentHashMap<>();
-    private final Map<Long, AtomicBoolean> stopEvents = new ConcurrentHashMap<>();
-    private final Map<Long, ServiceInstance> instanceMap = new ConcurrentHashMap<>();
+    private final Map<Long, InstanceLifecycle> lifecycles = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final RetryBacklog retryBacklog;
+    private final Counter retryParkedCounter;
+
+    private final Timer shutdownTimer;
+    private final AtomicInteger shutdownRemaining = new AtomicInteger();
+
+    private final AtomicLong firstRegistrationMillis = new AtomicLong();
 
     @Value("${lifecycle.retry.max:5}")
     private int maxRegisterRetries;
@@ -39,15 +63,48 @@ public class LifecycleManager {
     @Value("${lifecycle.heartbeat.retry.max:50}")
     private int maxHeartbeatRetries;
 
+    @Value("${lifecycle.heartbeat.interval.seconds:20}")
+    private long heartbeatIntervalSeconds;
+
+    @Value("${lifecycle.stop.await-ms:10000}")
+    private long stopAwaitMs;
+
+    @Value("${lifecycle.retry.backlog.drain-interval-ms:1000}")
+    private long backlogDrainIntervalMs;
+
+    @Value("${lifecycle.retry.backlog.drain-batch:100}")
+    private int backlogDrainBatch;
+
+    @Value("${lifecycle.warm-restart.interval-seconds:10}")
+    private long snapshotIntervalSeconds;
+
+    @Value("${lifecycle.shutdown.parallelism:32}")
+    private int shutdownParallelism;
+
+    @Value("${lifecycle.shutdown.deadline-ms:25000}")
+    private long shutdownDeadlineMs;
+
     public LifecycleManager(
             EurekaClientService eurekaClientService,
             MeterRegistry meterRegistry,
-            ServiceInstanceStore serviceInstanceStore
+            ServiceInstanceStore serviceInstanceStore,
+            LifecycleScheduler scheduler,
+            BackoffPolicy backoffPolicy,
+            RetryBudget retryBudget,
+            LifecycleJournal journal,
+            LeaseSnapshot leaseSnapshot,
+            @Value("${lifecycle.retry.backlog.max:10000}") int retryBacklogMax
     ) {
         this.eurekaClientService = eurekaClientService;
         this.serviceInstanceStore = serviceInstanceStore;
+        this.scheduler = scheduler;
+        this.backoffPolicy = backoffPolicy;
+        this.retryBudget = retryBudget;
+        this.journal = journal;
+        this.leaseSnapshot = leaseSnapshot;
+        this.retryBacklog = new RetryBacklog(retryBacklogMax);
 
-        this.scheduler = Executors.newScheduledThreadPool(5);
+        serviceInstanceStore.addChangeListener(eurekaClientService::invalidateDescriptor);
 
         this.registrationsCounter = Counter.builder("eureka_registrations_total")
                 .description("Gesamtzahl erfolgreicher Registrierungen bei Eureka")
@@ -65,169 +122,597 @@ public class LifecycleManager {
                 .description("Gesamtzahl fehlgeschlagener Heartbeats an Eureka")
                 .register(meterRegistry);
 
-        Gauge.builder("eureka_clients_running", this, lm -> lm.instanceMap.size())
+        Gauge.builder("eureka_clients_running", this, lm -> lm.getRunningInstances().size())
                 .description("Anzahl aktuell laufender Eureka Clients")
                 .register(meterRegistry);
 
-        Gauge.builder("eureka_clients_configured", this, lm -> lm.getConfiguredInstances().size())
+        Gauge.builder("eureka_clients_configured", serviceInstanceStore, ServiceInstanceStore::size)
                 .description("Anzahl aktuell konfigurierter Eureka Clients")
                 .register(meterRegistry);
+
+        this.retryParkedCounter = Counter.builder("eureka_retry_backlog_parked_total")
+                .description("Anzahl geparkter Retries bei offenem Circuit Breaker")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_retry_backlog_size", retryBacklog, RetryBacklog::size)
+                .description("Anzahl aktuell geparkter Retries")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_lifecycle_inflight", inFlight, AtomicInteger::get)
+                .description("Anzahl laufender Eureka-Aufrufe (höchstens einer pro Instanz)")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_lifecycle_queued", this, LifecycleManager::queuedRetries)
+                .description("Anzahl eingeplanter Retries (höchstens einer pro Instanz)")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("eureka_retry_backlog_shed_total", retryBacklog, RetryBacklog::shedCount)
+                .description("Anzahl verworfener Retries, weil das Backlog voll war")
+                .register(meterRegistry);
+
+        this.shutdownTimer = Timer.builder("eureka_shutdown_duration")
+                .description("Dauer der parallelen Deregistrierung beim Herunterfahren oder Refresh")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_shutdown_remaining", shutdownRemaining, AtomicInteger::get)
+                .description("Instanzen, die bei der letzten Deregistrierung bis zur Deadline nicht fertig wurden")
+                .register(meterRegistry);
+
+        TimeGauge.builder("eureka_first_registration", firstRegistrationMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Zeit vom JVM-Start bis zur ersten erfolgreichen Registrierung (0 bis dahin)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startBacklogDrain() {
+        scheduler.scheduleAtFixedRate(this::drainBacklog, backlogDrainIntervalMs, backlogDrainIntervalMs, TimeUnit.MILLISECONDS);
+        if (leaseSnapshot.isEnabled()) {
+            scheduler.scheduleAtFixedRate(this::writeLeaseSnapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
     }
 
+    private void writeLeaseSnapshot() {
+        leaseSnapshot.write(currentLeases());
+    }
+
+    private List<LeaseSnapshot.Lease> currentLeases() {
+        List<LeaseSnapshot.Lease> leases = new ArrayList<>();
+        for (InstanceLifecycle lifecycle : lifecycles.values()) {
+            if (lifecycle.isRegistered() && !lifecycle.isStopped()) {
+                InstanceDescriptor descriptor = eurekaClientService.descriptor(lifecycle.instance());
+                leases.add(new LeaseSnapshot.Lease(descriptor.instanceId(),
+                        LeaseSnapshot.fingerprint(descriptor.payload()), lifecycle.renewedAtMillis()));
+            }
+        }
+        return leases;
+    }
+
+    /**
+     * Gibt geparkte Retries schubweise frei, sobald wieder ein Eureka-Peer Requests annimmt
+     * und das Retry-Budget es zulässt.
+     */
+    private void drainBacklog() {
+        int parked = retryBacklog.size();
+        if (parked == 0 || !eurekaClientService.isAvailable()) {
+            return;
+        }
+        int permitted = 0;
+        int limit = Math.min(backlogDrainBatch, parked);
+        while (permitted < limit && retryBudget.tryWithdraw()) {
+            permitted++;
+        }
+        if (permitted == 0) {
+            return;
+        }
+        List<Runnable> tasks = retryBacklog.drain(permitted);
+        tasks.forEach(task -> scheduler.schedule(task, 0, TimeUnit.MILLISECONDS));
+        log.info("[Lifecycle] {} geparkte Retries freigegeben, {} verbleiben", tasks.size(), retryBacklog.size());
+    }
+
+    /**
+     * Startet den Lifecycle einer Instanz. Der erste Registrierungsversuch läuft synchron im Aufrufer,
+     * Retries und Heartbeats danach über den {@link LifecycleScheduler}.
+     */
     public void startLifecycle(ServiceInstance instance) {
-        retryRegister(instance, 0);
+        InstanceLifecycle lifecycle = new InstanceLifecycle(instance);
+        InstanceLifecycle previous = lifecycles.put(instance.getId(), lifecycle);
+        if (previous != null && previous.stop()) {
+            awaitIdle(previous);
+            log.debug("[Lifecycle] Laufender Lifecycle für {} ersetzt", instance.getServiceName());
+        }
+        retryBudget.deposit();
+        if (leaseSnapshot.isEnabled() && resumeFromSnapshot(lifecycle)) {
+            return;
+        }
+        register(lifecycle);
     }
 
-    private void retryRegister(ServiceInstance instance, int attempt) {
-        boolean registered = eurekaClientService.registerInstance(instance);
+    /**
+     * Warmstart: Ist die Lease laut Snapshot noch gültig, wird statt eines POST sofort ein Heartbeat gesendet.
+     * Antwortet Eureka mit 404, folgt über {@link #renew} die normale Registrierung.
+     */
+    private boolean resumeFromSnapshot(InstanceLifecycle lifecycle) {
+        ServiceInstance instance = lifecycle.instance();
+        InstanceDescriptor descriptor = eurekaClientService.descriptor(instance);
+        LeaseSnapshot.Lease lease = leaseSnapshot.take(descriptor.instanceId(), LeaseSnapshot.fingerprint(descriptor.payload()));
+        if (lease == null) {
+            return false;
+        }
+        lifecycle.resumed(lease.renewedAtMillis());
+        journal.record(instance.getId(), Type.RESUMED, 0);
+        log.debug("[Lifecycle] Warmstart für {} – setze Heartbeats fort", instance.getServiceName());
+        lifecycle.heartbeat(scheduler.schedulePeriodic(descriptor.instanceId(),
+                () -> renew(lifecycle, State.UP), heartbeatIntervalSeconds, TimeUnit.SECONDS));
+        renew(lifecycle, State.UP);
+        return true;
+    }
+
+    private void register(InstanceLifecycle lifecycle) {
+        if (!lifecycle.begin(State.REGISTERING, State.REGISTERING, State.BACKOFF)) {
+            return;
+        }
+        ServiceInstance instance = lifecycle.instance();
+        int attempt = lifecycle.attempt();
+        boolean registered;
+        inFlight.incrementAndGet();
+        try {
+            registered = eurekaClientService.registerInstance(instance);
+        } finally {
+            inFlight.decrementAndGet();
+            lifecycle.end();
+        }
+        if (lifecycle.isStopped()) {
+            return;
+        }
 
         if (registered) {
-            log.info("[Lifecycle] Registrierung erfolgreich für {}", instance.getServiceName());
+            journal.record(instance.getId(), Type.REGISTERED, attempt);
+            if (attempt > 0) {
+                log.info("[Lifecycle] Registrierung erfolgreich für {} nach {} Retries", instance.getServiceName(), attempt);
+            } else {
+                log.debug("[Lifecycle] Registrierung erfolgreich für {}", instance.getServiceName());
+            }
             registrationsCounter.increment();
+            markFirstRegistration();
+            lifecycle.registered();
+            // Nach einem 404 läuft der periodische Heartbeat bereits weiter
+            if (!lifecycle.hasHeartbeat()) {
+                lifecycle.heartbeat(scheduler.schedulePeriodic(eurekaClientService.generateInstanceId(instance),
+                        () -> renew(lifecycle, State.UP), heartbeatIntervalSeconds, TimeUnit.SECONDS));
+            }
+            return;
+        }
 
-            AtomicBoolean stopEvent = new AtomicBoolean(false);
-            stopEvents.put(instance.getId(), stopEvent);
-            instanceMap.put(instance.getId(), instance);
+        journal.record(instance.getId(), Type.REGISTER_FAILED, attempt);
+        registrationsFailedCounter.increment();
+        scheduleRetry(lifecycle, Operation.REGISTER, attempt);
+    }
+
+    /**
+     * Misst die Startzeit bis zur ersten Registrierung ab JVM-Start, also inklusive Klassenladen und Kontextaufbau.
+     * Damit lässt sich der Effekt des AOT-Caches vergleichen.
+     */
+    private void markFirstRegistration() {
+        if (firstRegistrationMillis.get() == 0) {
+            long uptime = Math.max(1, ManagementFactory.getRuntimeMXBean().getUptime());
+            if (firstRegistrationMillis.compareAndSet(0, uptime)) {
+                log.info("[Lifecycle] Erste Registrierung {} ms nach JVM-Start", uptime);
+            }
+        }
+    }
 
-            ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(() -> {
-                if (stopEvent.get()) {
-                    log.info("[Lifecycle] Stop-Signal empfangen für {}", instance.getServiceName());
-                    return;
-                }
+    public long firstRegistrationMillis() {
+        return firstRegistrationMillis.get();
+    }
 
-                try {
-                    boolean ok = eurekaClientService.sendHeartbeat(instance);
-                    if (!ok) {
-                        retryHeartbeat(instance, 1);
-                    }
-                } catch (HttpClientErrorException.NotFound nf) {
-                    log.error("[Lifecycle] Heartbeat 404 für {} – erneute Registrierung", instance.getServiceName());
-                    retryRegister(instance, 0);
-                } catch (Exception e) {
-                    log.error("[Lifecycle] Fehler beim Heartbeat für {}: {}", instance.getServiceName(), e.getMessage());
-                    retryHeartbeat(instance, 1);
-                }
-            }, 0, 20, TimeUnit.SECONDS);
-
-            runningTasks.put(instance.getId(), future);
+    /**
+     * Periodischer Heartbeat ({@code expected = UP}) oder Heartbeat-Retry ({@code expected = BACKOFF}).
+     * Ein periodischer Tick wird übersprungen, solange ein Retry, eine Registrierung oder ein anderer Aufruf läuft.
+     */
+    private void renew(InstanceLifecycle lifecycle, State expected) {
+        if (!lifecycle.begin(State.RENEWING, expected)) {
             return;
         }
+        ServiceInstance instance = lifecycle.instance();
+        int attempt = expected == State.UP ? 0 : lifecycle.attempt();
+        if (attempt == 0) {
+            retryBudget.deposit();
+        }
 
-        registrationsFailedCounter.increment();
-
-        if (attempt >= maxRegisterRetries) {
-            log.error("[Lifecycle] Registrierung endgültig fehlgeschlagen für {} nach {} Versuchen",
-                    instance.getServiceName(), attempt);
+        boolean ok = false;
+        boolean notFound = false;
+        inFlight.incrementAndGet();
+        try {
+            ok = eurekaClientService.sendHeartbeat(instance);
+        } catch (HttpClientErrorException.NotFound nf) {
+            notFound = true;
+        } catch (Exception e) {
+            log.debug("[Lifecycle] Fehler beim Heartbeat für {}: {}", instance.getServiceName(), e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+            lifecycle.end();
+        }
+        if (lifecycle.isStopped()) {
             return;
         }
 
-        int nextAttempt = attempt + 1;
-        long delay = Math.min(60, (long) Math.pow(2, attempt));
+        if (ok) {
+            journal.record(instance.getId(), Type.HEARTBEAT, attempt);
+            heartbeatsCounter.increment();
+            if (attempt > 0) {
+                log.info("[Lifecycle] Heartbeat erfolgreich nach Retry {} für {}", attempt, instance.getServiceName());
+            }
+            lifecycle.renewed();
+        } else if (notFound) {
+            journal.record(instance.getId(), Type.NOT_FOUND, attempt);
+            log.warn("[Lifecycle] Heartbeat 404 für {} – erneute Registrierung", instance.getServiceName());
+            lifecycle.notFound();
+            register(lifecycle);
+        } else {
+            journal.record(instance.getId(), Type.HEARTBEAT_FAILED, attempt);
+            if (attempt == 0) {
+                // Nur der Wechsel UP → BACKOFF wird geloggt, die einzelnen Retries stehen im Journal
+                log.warn("[Lifecycle] Heartbeat fehlgeschlagen für {} – starte Retries", instance.getServiceName());
+            } else {
+                log.debug("[Lifecycle] Heartbeat Retry {} fehlgeschlagen für {}", attempt, instance.getServiceName());
+                heartbeatsFailedCounter.increment();
+            }
+            scheduleRetry(lifecycle, Operation.HEARTBEAT, attempt);
+        }
+    }
 
-        log.warn("[Lifecycle] Registrierung fehlgeschlagen für {} – neuer Versuch in {} Sekunden (Versuch {})",
-                instance.getServiceName(), delay, nextAttempt);
+    /**
+     * Plant den einzigen Retry der Instanz. Bei offenem Circuit Breaker oder erschöpftem Retry-Budget
+     * wird geparkt statt eingeplant.
+     */
+    private void scheduleRetry(InstanceLifecycle lifecycle, Operation operation, int attempt) {
+        ServiceInstance instance = lifecycle.instance();
+        int nextAttempt = attempt + 1;
 
-        scheduler.schedule(() -> retryRegister(instance, nextAttempt), delay, TimeUnit.SECONDS);
-    }
+        if (!eurekaClientService.isAvailable()) {
+            // Bei offenem Circuit Breaker wurde nichts gesendet – der Versuch zählt nicht
+            if (lifecycle.backoff(operation, attempt, lifecycle.previousDelay())) {
+                park(lifecycle, operation);
+            }
+            return;
+        }
 
-    private void retryHeartbeat(ServiceInstance instance, int attempt) {
-        if (attempt > maxHeartbeatRetries) {
+        if (operation == Operation.REGISTER && attempt >= maxRegisterRetries) {
+            log.error("[Lifecycle] Registrierung endgültig fehlgeschlagen für {} nach {} Versuchen",
+                    instance.getServiceName(), attempt);
+            journal.record(instance.getId(), Type.GAVE_UP, attempt);
+            lifecycles.remove(instance.getId(), lifecycle);
+            lifecycle.stop();
+            return;
+        }
+        if (operation == Operation.HEARTBEAT && nextAttempt > maxHeartbeatRetries) {
             log.error("[Lifecycle] Heartbeat endgültig fehlgeschlagen für {} nach {} Versuchen",
-                    instance.getServiceName(), attempt - 1);
+                    instance.getServiceName(), attempt);
             heartbeatsFailedCounter.increment();
+            journal.record(instance.getId(), Type.GAVE_UP, attempt);
+            lifecycle.giveUpRetry();
             return;
         }
 
-        long delay = Math.min(60, (long) Math.pow(2, attempt));
+        if (!retryBudget.tryWithdraw()) {
+            if (operation == Operation.HEARTBEAT) {
+                // Der nächste periodische Heartbeat übernimmt
+                log.debug("[Lifecycle] Retry-Budget erschöpft – Heartbeat-Retry für {} entfällt", instance.getServiceName());
+                journal.record(instance.getId(), Type.GAVE_UP, attempt);
+                lifecycle.giveUpRetry();
+            } else if (lifecycle.backoff(operation, nextAttempt, lifecycle.previousDelay())) {
+                // Registrierungen dürfen nicht verloren gehen – warten im Backlog auf freies Budget
+                log.warn("[Lifecycle] Retry-Budget erschöpft – Registrierung von {} wird geparkt", instance.getServiceName());
+                park(lifecycle, operation);
+            }
+            return;
+        }
 
-        scheduler.schedule(() -> {
-            boolean ok = eurekaClientService.sendHeartbeat(instance);
+        // Heartbeat-Retries zählten schon immer ab 2 (erster Retry nach 2 × Basis), Registrierungen ab 1
+        int backoffAttempt = operation == Operation.HEARTBEAT ? nextAttempt + 1 : nextAttempt;
+        long delay = backoffPolicy.nextDelayMillis(backoffAttempt, lifecycle.previousDelay());
+        if (!lifecycle.backoff(operation, nextAttempt, delay)) {
+            return;
+        }
+        journal.record(instance.getId(), Type.RETRY_SCHEDULED, (int) Math.min(delay, Integer.MAX_VALUE));
+        if (operation == Operation.REGISTER && attempt == 0) {
+            log.warn("[Lifecycle] Registrierung fehlgeschlagen für {} – neuer Versuch in {} ms",
+                    instance.getServiceName(), delay);
+        } else {
+            log.debug("[Lifecycle] {} für {} – neuer Versuch in {} ms (Versuch {})",
+                    operation, instance.getServiceName(), delay, nextAttempt);
+        }
+        planRetry(lifecycle, () -> resume(lifecycle), delay);
+    }
 
-            if (!ok) {
-                log.warn("[Lifecycle] Heartbeat Retry {} fehlgeschlagen für {} – neuer Versuch in {} Sekunden",
-                        attempt, instance.getServiceName(), delay);
-                heartbeatsFailedCounter.increment();
-                retryHeartbeat(instance, attempt + 1);
-            } else {
-                log.info("[Lifecycle] Heartbeat erfolgreich nach Retry {} für {}", attempt, instance.getServiceName());
-                heartbeatsCounter.increment();
-            }
-        }, delay, TimeUnit.SECONDS);
+    /**
+     * Legt den Retry in den Scheduler. Läuft er an, bevor das Handle gespeichert ist, verwirft
+     * {@link InstanceLifecycle#retry} das Handle, damit kein veralteter Retry als ausstehend zählt.
+     */
+    private void planRetry(InstanceLifecycle lifecycle, Runnable call, long delayMillis) {
+        int starts = lifecycle.retryStarts();
+        lifecycle.retry(scheduler.schedule(() -> {
+            lifecycle.retryStarted();
+            call.run();
+        }, delayMillis, TimeUnit.MILLISECONDS), starts);
     }
 
-    public void stopLifecycle(ServiceInstance instance) {
-        AtomicBoolean stopEvent = stopEvents.get(instance.getId());
-        if (stopEvent != null) {
-            stopEvent.set(true);
+    private void resume(InstanceLifecycle lifecycle) {
+        if (lifecycle.retryOperation() == Operation.REGISTER) {
+            register(lifecycle);
+        } else {
+            renew(lifecycle, State.BACKOFF);
         }
+    }
 
-        ScheduledFuture<?> future = runningTasks.remove(instance.getId());
-        if (future != null) {
-            future.cancel(true);
+    private void park(InstanceLifecycle lifecycle, Operation operation) {
+        ServiceInstance instance = lifecycle.instance();
+        boolean registration = operation == Operation.REGISTER;
+        switch (retryBacklog.park(instance.getId(), registration, () -> resume(lifecycle), () -> shed(lifecycle))) {
+            case PARKED -> {
+                retryParkedCounter.increment();
+                journal.record(instance.getId(), Type.PARKED, lifecycle.attempt());
+            }
+            // Nur Heartbeat-Retries werden verworfen, Registrierungen bleiben immer geparkt
+            case SHED -> shed(lifecycle);
+            case MERGED -> { }
         }
+    }
 
-        instanceMap.remove(instance.getId());
-        stopEvents.remove(instance.getId());
+    /**
+     * Verworfener oder verdrängter Heartbeat-Retry: Ohne ausstehenden Retry bliebe die Instanz in BACKOFF und der
+     * periodische Heartbeat würde dauerhaft übersprungen, also übernimmt er wieder.
+     */
+    private void shed(InstanceLifecycle lifecycle) {
+        ServiceInstance instance = lifecycle.instance();
+        journal.record(instance.getId(), Type.SHED, lifecycle.attempt());
+        log.warn("[Lifecycle] Retry-Backlog voll – Heartbeat-Retry für {} verworfen", instance.getServiceName());
+        lifecycle.giveUpRetry();
+    }
+
+    public void stopLifecycle(ServiceInstance instance) {
+        InstanceLifecycle lifecycle = lifecycles.remove(instance.getId());
+        retryBacklog.remove(instance.getId());
+
+        if (lifecycle != null) {
+            lifecycle.stop();
+            awaitIdle(lifecycle);
+        }
 
         eurekaClientService.deregisterInstance(instance);
+        journal.record(instance.getId(), Type.DEREGISTERED, 0);
 
         log.info("[Lifecycle] Instanz gestoppt und deregistriert: {}", instance.getServiceName());
     }
 
+    /**
+     * Wartet, bis ein laufender Aufruf der Instanz beendet ist, damit die Deregistrierung nicht mit einem
+     * Heartbeat oder einer Registrierung überlappt.
+     */
+    private void awaitIdle(InstanceLifecycle lifecycle) {
+        try {
+            if (lifecycle.awaitIdle(stopAwaitMs)) {
+                lifecycle.end();
+            } else {
+                log.warn("[Lifecycle] Laufender Aufruf für {} nach {} ms nicht beendet – deregistriere trotzdem",
+                        lifecycle.instance().getServiceName(), stopAwaitMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Beim Herunterfahren: alle Instanzen deregistrieren. Mit Warmstart stattdessen den Lease-Snapshot schreiben
+     * und die Leases bei Eureka stehen lassen, damit der nächste Start nur Heartbeats fortsetzt.
+     */
     public void stopAll(List<ServiceInstance> instances) {
-        instances.forEach(this::stopLifecycle);
+        if (leaseSnapshot.isEnabled()) {
+            leaseSnapshot.writeFinal(currentLeases());
+            lifecycles.values().forEach(InstanceLifecycle::stop);
+            log.info("[Lifecycle] Warmstart: {} Instanzen angehalten, Leases bleiben bei Eureka", lifecycles.size());
+            lifecycles.clear();
+        } else {
+            stopWithinDeadline(instances);
+        }
         scheduler.shutdown();
     }
 
+    /**
+     * Vollständiger Refresh: stoppt alle laufenden Instanzen parallel, aber ohne Shutdown-Deadline. Danach werden
+     * die Instanzen neu gestartet, eine noch laufende Deregistrierung würde sonst mit der neuen Registrierung
+     * überlappen.
+     */
     public void stopAllRunning() {
         List<ServiceInstance> running = getRunningInstances();
-        running.forEach(this::stopLifecycle);
+        stopConcurrently(running, 0);
         log.info("[Lifecycle] Alle {} laufenden Instanzen gestoppt", running.size());
     }
 
-    public List<ServiceInstance> getRunningInstances() {
-        return List.copyOf(instanceMap.values());
+    /**
+     * Beim Herunterfahren: Nach {@code lifecycle.shutdown.deadline-ms} wird nicht länger gewartet, damit der Pod
+     * innerhalb der Termination Grace Period endet; die übrigen Instanzen werden geloggt und als Metrik gemeldet.
+     *
+     * @return Instanzen, die bis zur Deadline nicht deregistriert wurden
+     */
+    List<ServiceInstance> stopWithinDeadline(List<ServiceInstance> instances) {
+        return stopConcurrently(instances, shutdownDeadlineMs);
     }
 
-    public List<ServiceInstance> getConfiguredInstances() {
-        return serviceInstanceStore.getInstances();
-    }
+    /**
+     * Stoppt und deregistriert mit höchstens {@code lifecycle.shutdown.parallelism} gleichzeitigen Aufrufen.
+     *
+     * @param deadlineMs Gesamt-Deadline, {@code 0} wartet bis alle Instanzen gestoppt sind
+     * @return Instanzen, die bis zur Deadline nicht deregistriert wurden
+     */
+    private List<ServiceInstance> stopConcurrently(List<ServiceInstance> instances, long deadlineMs) {
+        long start = System.nanoTime();
+        int count = instances.size();
+        Semaphore permits = new Semaphore(Math.max(1, shutdownParallelism));
+        CountDownLatch finished = new CountDownLatch(count);
+        AtomicIntegerArray done = new AtomicIntegerArray(count);
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lifecycle-stop-", 0).factory());
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        permits.acquire();
+                        try {
+                            stopLifecycle(instances.get(index));
+                            done.set(index, 1);
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        log.warn("[Lifecycle] Fehler beim Stoppen von {}: {}", instances.get(index).getServiceName(), e.getMessage());
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            if (deadlineMs <= 0) {
+                finished.await();
+            } else if (!finished.await(deadlineMs, TimeUnit.MILLISECONDS)) {
+                log.warn("[Lifecycle] Deadline von {} ms für die Deregistrierung erreicht", deadlineMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
 
-    public ServiceInstance updateInstance(UpdateInstanceRequest request) {
-        ServiceInstance instance = serviceInstanceStore.findByServiceName(request.getServiceName());
+        List<ServiceInstance> remaining = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (done.get(i) == 0) {
+                remaining.add(instances.get(i));
+            }
+        }
+        shutdownTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        shutdownRemaining.set(remaining.size());
+        if (!remaining.isEmpty()) {
+            log.warn("[Lifecycle] {} von {} Instanzen nicht deregistriert: {}", remaining.size(), count,
+                    remaining.stream().limit(20).map(ServiceInstance::getServiceName).toList());
+        }
+        return remaining;
+    }
 
-        if (instance == null) {
-            log.warn("[Lifecycle] Update: Instanz {} nicht gefunden", request.getServiceName());
-            return null;
+    /**
+     * Gleicht die laufenden Instanzen mit dem Registry-Abbild ab. Fehlt eine Instanz bei Eureka oder weicht ihr
+     * Status ab, wird sie neu registriert – gestaffelt mit höchstens {@code perSecond} Registrierungen pro Sekunde,
+     * damit nach einem Eureka-Neustart nicht alle gleichzeitig anfragen. Berücksichtigt werden nur Instanzen in UP,
+     * die vor {@code registeredBeforeMillis} registriert wurden; jüngere sind im Read-Cache von Eureka evtl. noch nicht
+     * sichtbar. Ein von außen gesetzter Status (Override) wird nicht überschrieben.
+     */
+    Drift reconcile(RegistryCache registry, long registeredBeforeMillis, int perSecond) {
+        long spacingMillis = 1000L / Math.max(1, perSecond);
+        int checked = 0;
+        int missing = 0;
+        int statusDrift = 0;
+        for (InstanceLifecycle lifecycle : lifecycles.values()) {
+            if (lifecycle.state() != State.UP || lifecycle.registeredAtMillis() > registeredBeforeMillis) {
+                continue;
+            }
+            checked++;
+            ServiceInstance instance = lifecycle.instance();
+            RegistryCache.Entry entry = registry.get(eurekaClientService.descriptor(instance).instancePath());
+            Type type;
+            if (entry == null) {
+                type = Type.MISSING;
+            } else if (!entry.isOverridden() && !entry.status().equalsIgnoreCase(expectedStatus(instance))) {
+                type = Type.STATUS_DRIFT;
+            } else {
+                continue;
+            }
+            if (!lifecycle.reregister()) {
+                continue;
+            }
+            long delay = (missing + statusDrift) * spacingMillis;
+            if (type == Type.MISSING) {
+                missing++;
+            } else {
+                statusDrift++;
+            }
+            journal.record(instance.getId(), type, (int) Math.min(delay, Integer.MAX_VALUE));
+            planRetry(lifecycle, () -> register(lifecycle), delay);
         }
+        return new Drift(checked, missing, statusDrift);
+    }
 
-        stopLifecycle(instance);
+    private static String expectedStatus(ServiceInstance instance) {
+        return instance.getStatus() == null || instance.getStatus().isBlank() ? "UP" : instance.getStatus().trim();
+    }
 
-        if (request.getNewHostName() != null && !request.getNewHostName().isBlank()) {
-            instance.setHostName(request.getNewHostName().trim());
-        }
-        if (request.getNewIpAddress() != null && !request.getNewIpAddress().isBlank()) {
-            instance.setIpAddr(request.getNewIpAddress().trim());
+    /**
+     * Instanzen, die registriert sind und deren Lifecycle läuft – auch während eines Heartbeat-Retries.
+     */
+    public List<ServiceInstance> getRunningInstances() {
+        List<ServiceInstance> running = new ArrayList<>();
+        for (InstanceLifecycle lifecycle : lifecycles.values()) {
+            if (lifecycle.isRegistered() && !lifecycle.isStopped()) {
+                running.add(lifecycle.instance());
+            }
         }
-        if (request.getHttpPort() >= 1 && request.getHttpPort() <= 65535) {
-            instance.setHttpPort(request.getHttpPort());
+        return running;
+    }
+
+    /**
+     * Wie {@link #getRunningInstances()} für eine einzelne Instanz.
+     */
+    public boolean isRunning(ServiceInstance instance) {
+        InstanceLifecycle lifecycle = lifecycles.get(instance.getId());
+        return lifecycle != null && lifecycle.isRegistered() && !lifecycle.isStopped();
+    }
+
+    public LifecycleStats getStats() {
+        Map<String, Integer> states = new LinkedHashMap<>();
+        for (State state : State.values()) {
+            states.put(state.name(), 0);
         }
-        if (request.getSecurePort() >= 0 && request.getSecurePort() <= 65535) {
-            instance.setSecurePort(request.getSecurePort());
+        int queued = 0;
+        for (InstanceLifecycle lifecycle : lifecycles.values()) {
+            states.merge(lifecycle.state().name(), 1, Integer::sum);
+            if (lifecycle.hasPendingRetry()) {
+                queued++;
+            }
         }
-        instance.setSslPreferred(request.isSslPreferred());
+        return new LifecycleStats(lifecycles.size(), states, inFlight.get(), queued, retryBacklog.size());
+    }
 
-        serviceInstanceStore.save(instance);
-        startLifecycle(instance);
+    private int queuedRetries() {
+        int queued = 0;
+        for (InstanceLifecycle lifecycle : lifecycles.values()) {
+            if (lifecycle.hasPendingRetry()) {
+                queued++;
+            }
+        }
+        return queued;
+    }
 
-        log.info("[Controller] Instanz {} aktualisiert: Host={}, IP={}, SecurePort={}, SSL={}",
-                request.getServiceName(),
-                request.getNewHostName(),
-                request.getNewIpAddress(),
-                request.getSecurePort(),
-                request.isSslPreferred());
+    public List<ServiceInstance> getConfiguredInstances() {
+        return serviceInstanceStore.getInstances();
+    }
 
-        return instance;
+    /**
+     * Ergebnis eines Abgleichs: geprüfte Instanzen, bei Eureka fehlende und solche mit abweichendem Status.
+     */
+    record Drift(int checked, int missing, int statusDrift) { }
+
+    /**
+     * Momentaufnahme aller Lifecycles: Anzahl pro Zustand, laufende Aufrufe, eingeplante und geparkte Retries.
+     */
+    public record LifecycleStats(int instances, Map<String, Integer> states, int inFlight, int queued, int parked) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("instances", instances);
+            map.put("states", states);
+            map.put("inFlight", inFlight);
+            map.put("queued", queued);
+            map.put("parked", parked);
+            return map;
+        }
     }
 }
-
@@ -0,0 +1,292 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plant Registrierungen, Heartbeats und Retries.
+ * <p>
+ * Im Modus {@code platform} laufen die Aufgaben direkt auf dem Scheduler-Pool.
+ * Im Modus {@code virtual} übernimmt der Scheduler nur das Timing, jeder blockierende
+ * Eureka-Aufruf läuft auf einem eigenen virtuellen Thread, begrenzt durch
+ * {@code lifecycle.executor.virtual.max-concurrency}.
+ * <p>
+ * Mit {@code lifecycle.scheduler.timing=wheel} übernimmt ein {@link HashedTimingWheel} das Timing
+ * statt der {@code DelayedWorkQueue} des {@link ScheduledExecutorService}. In beiden Fällen werden periodische
+ * Aufgaben anhand ihres Schlüssels gleichmäßig über das Intervall verteilt.
+ */
+@Component
+public class LifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LifecycleScheduler.class);
+
+    public enum Mode { PLATFORM, VIRTUAL }
+
+    public enum Timing { EXECUTOR, WHEEL }
+
+    private final Mode mode;
+    private final Timing timing;
+    private final ScheduledExecutorService timer;
+    private final HashedTimingWheel wheel;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+
+    private final Timer queueDelayTimer;
+    private final Counter overrunCounter;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    public LifecycleScheduler(
+            @Value("${lifecycle.executor.mode:platform}") String mode,
+            @Value("${lifecycle.executor.threads:5}") int threads,
+            @Value("${lifecycle.executor.virtual.max-concurrency:500}") int maxConcurrency,
+            @Value("${lifecycle.scheduler.timing:executor}") String timing,
+            @Value("${lifecycle.wheel.tick-ms:100}") long wheelTickMs,
+            @Value("${lifecycle.wheel.size:512}") int wheelSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.timing = Timing.valueOf(timing.trim().toUpperCase(Locale.ROOT));
+
+        if (this.mode == Mode.VIRTUAL) {
+            this.timer = Executors.newScheduledThreadPool(Math.max(1, threads), timerThreadFactory());
+            this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lifecycle-vt-", 0).factory());
+            this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        } else {
+            this.timer = Executors.newScheduledThreadPool(Math.max(1, threads));
+            this.workers = null;
+            this.permits = null;
+        }
+
+        if (this.timing == Timing.WHEEL) {
+            this.wheel = new HashedTimingWheel(wheelTickMs, TimeUnit.MILLISECONDS, wheelSize,
+                    Runnable::run, r -> {
+                        Thread t = new Thread(r, "lifecycle-wheel");
+                        t.setDaemon(true);
+                        return t;
+                    });
+            Gauge.builder("eureka_scheduler_pending_timeouts", wheel, HashedTimingWheel::pendingTimeouts)
+                    .description("Anzahl im Timing Wheel eingeplanter Aufgaben")
+                    .register(meterRegistry);
+        } else {
+            this.wheel = null;
+        }
+
+        this.queueDelayTimer = Timer.builder("eureka_scheduler_queue_delay")
+                .description("Verzögerung zwischen geplantem und tatsächlichem Start einer Lifecycle-Aufgabe")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.overrunCounter = Counter.builder("eureka_scheduler_overruns_total")
+                .description("Übersprungene periodische Ausführungen, weil die vorherige noch lief")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_scheduler_waiting", waiting, AtomicInteger::get)
+                .description("Anzahl Aufgaben, die auf einen freien Ausführungsslot warten")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_scheduler_active", active, AtomicInteger::get)
+                .description("Anzahl aktuell laufender Lifecycle-Aufgaben")
+                .register(meterRegistry);
+
+        log.info("[Scheduler] Modus={}, Timing={}, Threads={}, MaxConcurrency={}",
+                this.mode, this.timing, threads, this.mode == Mode.VIRTUAL ? maxConcurrency : threads);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public ScheduledTask schedule(Runnable task, long delay, TimeUnit unit) {
+        DispatchedTask dispatched = new DispatchedTask(task, System.nanoTime() + unit.toNanos(delay), 0);
+        if (wheel != null) {
+            dispatched.trigger = wheel.schedule(dispatched, delay, unit)::cancel;
+        } else {
+            ScheduledFuture<?> future = timer.schedule(dispatched, delay, unit);
+            dispatched.trigger = () -> future.cancel(false);
+        }
+        return dispatched;
+    }
+
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        DispatchedTask dispatched = new DispatchedTask(task,
+                System.nanoTime() + unit.toNanos(initialDelay), unit.toNanos(period));
+        if (wheel != null) {
+            dispatched.trigger = wheel.scheduleAtFixedRate(dispatched, initialDelay, period, unit)::cancel;
+        } else {
+            ScheduledFuture<?> future = timer.scheduleAtFixedRate(dispatched, initialDelay, period, unit);
+            dispatched.trigger = () -> future.cancel(false);
+        }
+        return dispatched;
+    }
+
+    /**
+     * Periodische Aufgabe mit deterministischer Phase pro Schlüssel (z. B. Instance-ID), damit nicht alle
+     * Heartbeats im selben Moment fällig werden.
+     */
+    public ScheduledTask schedulePeriodic(String key, Runnable task, long period, TimeUnit unit) {
+        long periodMillis = unit.toMillis(period);
+        return scheduleAtFixedRate(task, phaseDelayMillis(key, periodMillis), periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start-Offset innerhalb von {@code periodMillis}. Mit Timing Wheel relativ zu dessen Ticks, sonst mit derselben
+     * Verteilung relativ zum Start des Schedulers.
+     */
+    long phaseDelayMillis(String key, long periodMillis) {
+        if (periodMillis <= 0) {
+            return 0;
+        }
+        if (wheel != null) {
+            return wheel.phaseDelay(key, periodMillis, TimeUnit.MILLISECONDS);
+        }
+        long phase = HashedTimingWheel.mix(key.hashCode()) % periodMillis;
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return Math.floorMod(phase - elapsed, periodMillis);
+    }
+
+    public void shutdown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+        timer.shutdown();
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    private static ThreadFactory timerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "lifecycle-timer-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private final class DispatchedTask implements Runnable, ScheduledTask {
+
+        private final Runnable task;
+        private final long periodNanos;
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private volatile long intendedStartNanos;
+        private volatile boolean cancelled;
+        private volatile Cancellation trigger;
+        private volatile Thread worker;
+
+        private DispatchedTask(Runnable task, long intendedStartNanos, long periodNanos) {
+            this.task = task;
+            this.intendedStartNanos = intendedStartNanos;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public void run() {
+            long intended = intendedStartNanos;
+            if (periodNanos > 0) {
+                intendedStartNanos = intended + periodNanos;
+            }
+            if (cancelled) {
+                return;
+            }
+            if (!running.compareAndSet(false, true)) {
+                overrunCounter.increment();
+                log.debug("[Scheduler] Vorherige Ausführung läuft noch – Tick übersprungen");
+                return;
+            }
+            try {
+                if (workers != null) {
+                    workers.execute(() -> acquireAndExecute(intended));
+                } else if (wheel != null) {
+                    // Der Wheel-Worker darf nie blockieren, also an den Pool abgeben
+                    timer.execute(() -> execute(intended));
+                } else {
+                    execute(intended);
+                }
+            } catch (RuntimeException e) {
+                running.set(false);
+                log.warn("[Scheduler] Aufgabe konnte nicht übergeben werden: {}", e.getMessage());
+            }
+        }
+
+        private void acquireAndExecute(long intended) {
+            waiting.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running.set(false);
+                return;
+            } finally {
+                waiting.decrementAndGet();
+            }
+            try {
+                execute(intended);
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void execute(long intended) {
+            queueDelayTimer.record(Math.max(0, System.nanoTime() - intended), TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            worker = Thread.currentThread();
+            try {
+                if (!cancelled) {
+                    task.run();
+                }
+            } catch (RuntimeException e) {
+                log.error("[Scheduler] Unbehandelter Fehler in Lifecycle-Aufgabe: {}", e.getMessage(), e);
+            } finally {
+                worker = null;
+                active.decrementAndGet();
+                running.set(false);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Cancellation t = trigger;
+            if (t != null) {
+                t.cancel();
+            }
+            Thread w = worker;
+            if (w != null && w != Thread.currentThread()) {
+                w.interrupt();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Cancellation {
+        void cancel();
+    }
+}
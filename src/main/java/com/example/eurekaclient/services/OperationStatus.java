@@ -0,0 +1,23 @@
+package com.example.eurekaclient.services;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Status einer asynchron ausgeführten Operation.")
+public record OperationStatus(
+        @Schema(description = "ID der Operation.", example = "3f0c8a52-6f5e-4c1e-9d7a-2b1f0e4c9a11")
+        String id,
+        @Schema(description = "Art der Operation.", example = "UPDATE")
+        String type,
+        @Schema(description = "Name des betroffenen Services.", example = "payment-service")
+        String serviceName,
+        @Schema(description = "QUEUED, RUNNING, SUCCEEDED oder FAILED.", example = "SUCCEEDED")
+        String state,
+        @Schema(description = "Zeitpunkt der Annahme (Epoch-Millis).", example = "1760700000000")
+        long submittedAtMillis,
+        @Schema(description = "Beginn der Ausführung (Epoch-Millis, 0 = noch nicht gestartet).", example = "1760700000012")
+        long startedAtMillis,
+        @Schema(description = "Ende der Ausführung (Epoch-Millis, 0 = noch nicht beendet).", example = "1760700000480")
+        long finishedAtMillis,
+        @Schema(description = "Ergebnis- oder Fehlermeldung.", example = "Instanz 'payment-service' erfolgreich aktualisiert und neu gestartet.")
+        String message
+) { }
@@ -0,0 +1,142 @@
+package com.example.eurekaclient.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lokales Abbild der Eureka-Registry, aufgebaut aus einem {@code GET apps/} und fortgeschrieben mit
+ * {@code GET apps/delta}.
+ * <p>
+ * Schlüssel ist wie in {@link InstanceDescriptor#instancePath()} {@code APP/instanceId}. Nach jedem Delta wird der
+ * Reconcile-Hashcode ({@code apps__hashcode}, z. B. {@code DOWN_2_UP_40_}) mit dem lokalen Stand verglichen;
+ * weicht er ab – etwa weil Eureka neu gestartet wurde –, muss wieder vollständig geladen werden.
+ * <p>
+ * Nicht thread-safe, wird nur vom {@link RegistryReconciler} benutzt.
+ */
+final class RegistryCache {
+
+    record Entry(String status, String overriddenStatus) {
+
+        /**
+         * Status, der über {@code PUT .../status} von außen festgesetzt wurde ({@code UNKNOWN} = keiner).
+         */
+        boolean isOverridden() {
+            return overriddenStatus != null && !overriddenStatus.isBlank() && !"UNKNOWN".equalsIgnoreCase(overriddenStatus);
+        }
+    }
+
+    enum Action { ADDED, MODIFIED, DELETED }
+
+    record Change(String key, Entry entry, Action action) { }
+
+    /**
+     * Antwort von {@code GET apps/} oder {@code GET apps/delta}.
+     */
+    record Fetch(List<Change> changes, String appsHashCode) { }
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean complete;
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void replace(Fetch full) {
+        entries.clear();
+        for (Change change : full.changes()) {
+            entries.put(change.key(), change.entry());
+        }
+        complete = true;
+    }
+
+    /**
+     * Wendet ein Delta an.
+     *
+     * @return {@code false}, wenn der Hashcode danach nicht zu Eureka passt; der Cache gilt dann als unvollständig
+     */
+    boolean apply(Fetch delta) {
+        for (Change change : delta.changes()) {
+            if (change.action() == Action.DELETED) {
+                entries.remove(change.key());
+            } else {
+                entries.put(change.key(), change.entry());
+            }
+        }
+        if (delta.appsHashCode() != null && !delta.appsHashCode().equals(reconcileHashCode(entries.values()))) {
+            complete = false;
+        }
+        return complete;
+    }
+
+    /**
+     * Reconcile-Hashcode wie bei Eureka: Anzahl Instanzen pro Status, nach Status sortiert.
+     */
+    static String reconcileHashCode(Collection<Entry> entries) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Entry entry : entries) {
+            counts.merge(entry.status(), 1, Integer::sum);
+        }
+        StringBuilder hash = new StringBuilder();
+        counts.forEach((status, count) -> hash.append(status).append('_').append(count).append('_'));
+        return hash.toString();
+    }
+
+    /**
+     * Liest die JSON-Antwort von Eureka. Ältere Server liefern einzelne Elemente statt Arrays, beides wird akzeptiert.
+     *
+     * @throws IOException wenn die Antwort kein {@code applications}-Objekt enthält, z. B. bei leerem Body – sonst
+     *                     sähe eine kaputte Antwort wie eine leere Registry aus und alle Instanzen fehlten scheinbar
+     */
+    static Fetch parse(byte[] json) throws IOException {
+        JsonNode applications = mapper.readTree(json).path("applications");
+        if (!applications.isObject()) {
+            throw new IOException("Antwort enthält kein applications-Objekt");
+        }
+        List<Change> changes = new ArrayList<>();
+        for (JsonNode application : elements(applications.path("application"))) {
+            String appName = application.path("name").asText("");
+            for (JsonNode instance : elements(application.path("instance"))) {
+                String app = instance.path("app").asText(appName).toUpperCase(Locale.ROOT);
+                String instanceId = instance.hasNonNull("instanceId")
+                        ? instance.get("instanceId").asText() : instance.path("hostName").asText();
+                String overridden = instance.hasNonNull("overriddenStatus")
+                        ? instance.get("overriddenStatus").asText() : instance.path("overriddenstatus").asText(null);
+                Entry entry = new Entry(instance.path("status").asText("UNKNOWN"), overridden);
+                Action action = switch (instance.path("actionType").asText("ADDED")) {
+                    case "DELETED" -> Action.DELETED;
+                    case "MODIFIED" -> Action.MODIFIED;
+                    default -> Action.ADDED;
+                };
+                changes.add(new Change(app + "/" + instanceId, entry, action));
+            }
+        }
+        String hashCode = applications.hasNonNull("apps__hashcode") ? applications.get("apps__hashcode").asText() : null;
+        return new Fetch(changes, hashCode);
+    }
+
+    private static Iterable<JsonNode> elements(JsonNode node) {
+        if (node.isArray()) {
+            return node;
+        }
+        return node.isObject() ? List.of(node) : List.of();
+    }
+}
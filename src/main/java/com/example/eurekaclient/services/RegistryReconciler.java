@@ -0,0 +1,169 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodischer Abgleich der laufenden Instanzen mit der Eureka-Registry.
+ * <p>
+ * Ohne Abgleich fällt ein Verlust bei Eureka erst auf, wenn der Heartbeat einer Instanz mit 404 beantwortet wird –
+ * nach einem Eureka-Neustart also tausendfach einzeln. Stattdessen lädt der Reconciler einmal die komplette Registry
+ * ({@code GET apps/}) und danach nur noch {@code GET apps/delta} in einen {@link RegistryCache}. Passt der Hashcode
+ * nach einem Delta nicht mehr, wird wieder vollständig geladen. Fehlende Instanzen und Instanzen mit abweichendem
+ * Status registriert der {@link LifecycleManager} gestaffelt neu.
+ */
+@Slf4j
+@Component
+public class RegistryReconciler {
+
+    private final EurekaClientService eurekaClientService;
+    private final LifecycleManager lifecycleManager;
+    private final RegistryCache registry = new RegistryCache();
+
+    private final Timer fullTimer;
+    private final Timer deltaTimer;
+    private final Counter missingCounter;
+    private final Counter statusDriftCounter;
+    private final AtomicInteger lastMissing = new AtomicInteger();
+    private final AtomicInteger lastStatusDrift = new AtomicInteger();
+
+    @Value("${lifecycle.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lifecycle.reconcile.interval-seconds:30}")
+    private long intervalSeconds;
+
+    @Value("${lifecycle.reconcile.grace-seconds:90}")
+    private long graceSeconds;
+
+    @Value("${lifecycle.reconcile.reregister-per-second:50}")
+    private int reregisterPerSecond;
+
+    private ScheduledExecutorService executor;
+
+    public RegistryReconciler(EurekaClientService eurekaClientService, LifecycleManager lifecycleManager,
+                              MeterRegistry meterRegistry) {
+        this.eurekaClientService = eurekaClientService;
+        this.lifecycleManager = lifecycleManager;
+
+        this.fullTimer = Timer.builder("eureka_reconcile_duration")
+                .description("Dauer eines Abgleichs mit der Eureka-Registry inklusive Fetch")
+                .tag("fetch", "full")
+                .register(meterRegistry);
+        this.deltaTimer = Timer.builder("eureka_reconcile_duration")
+                .description("Dauer eines Abgleichs mit der Eureka-Registry inklusive Fetch")
+                .tag("fetch", "delta")
+                .register(meterRegistry);
+
+        this.missingCounter = Counter.builder("eureka_reconcile_drift_total")
+                .description("Beim Abgleich gefundene Abweichungen, die eine Neu-Registrierung auslösen")
+                .tag("type", "missing")
+                .register(meterRegistry);
+        this.statusDriftCounter = Counter.builder("eureka_reconcile_drift_total")
+                .description("Beim Abgleich gefundene Abweichungen, die eine Neu-Registrierung auslösen")
+                .tag("type", "status")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_reconcile_drift", lastMissing, AtomicInteger::get)
+                .description("Abweichungen beim letzten Abgleich")
+                .tag("type", "missing")
+                .register(meterRegistry);
+        Gauge.builder("eureka_reconcile_drift", lastStatusDrift, AtomicInteger::get)
+                .description("Abweichungen beim letzten Abgleich")
+                .tag("type", "status")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_reconcile_registry_instances", registry, RegistryCache::size)
+                .description("Anzahl Instanzen im lokalen Abbild der Eureka-Registry")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || intervalSeconds <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eureka-reconcile");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::reconcileSafely, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("[Reconcile] Abgleich fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ein Abgleich: Delta laden (oder die komplette Registry, solange kein konsistenter Stand vorliegt) und
+     * die Abweichungen an den {@link LifecycleManager} geben.
+     *
+     * @return {@code null}, wenn Eureka nicht oder ohne lesbare Registry geantwortet hat; der bisherige Cache bleibt
+     */
+    LifecycleManager.Drift reconcile() {
+        long start = System.nanoTime();
+        long fetchedAt = System.currentTimeMillis();
+        boolean full = !registry.isComplete();
+
+        if (!full) {
+            RegistryCache.Fetch delta = eurekaClientService.fetchRegistry(true);
+            if (delta == null) {
+                return null;
+            }
+            if (!registry.apply(delta)) {
+                log.info("[Reconcile] Hashcode nach Delta weicht ab – lade die komplette Registry");
+                full = true;
+            }
+        }
+        if (full) {
+            RegistryCache.Fetch all = eurekaClientService.fetchRegistry(false);
+            if (all == null) {
+                return null;
+            }
+            registry.replace(all);
+        }
+
+        LifecycleManager.Drift drift = lifecycleManager.reconcile(registry,
+                fetchedAt - TimeUnit.SECONDS.toMillis(graceSeconds), reregisterPerSecond);
+        (full ? fullTimer : deltaTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        missingCounter.increment(drift.missing());
+        statusDriftCounter.increment(drift.statusDrift());
+        lastMissing.set(drift.missing());
+        lastStatusDrift.set(drift.statusDrift());
+
+        if (drift.missing() > 0 || drift.statusDrift() > 0) {
+            log.warn("[Reconcile] {} von {} Instanzen fehlen bei Eureka, {} mit abweichendem Status – "
+                            + "registriere neu mit {} pro Sekunde",
+                    drift.missing(), drift.checked(), drift.statusDrift(), reregisterPerSecond);
+        } else {
+            log.debug("[Reconcile] {} Instanzen geprüft, Registry mit {} Einträgen ({})",
+                    drift.checked(), registry.size(), full ? "full" : "delta");
+        }
+        return drift;
+    }
+}
@@ -1,20 +1,171 @@
 package com.example.eurekaclient.services;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.Connection;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.transport.HttpClientTransportOverHTTP;
+import org.eclipse.jetty.client.transport.HttpDestination;
+import org.eclipse.jetty.io.ClientConnector;
+import org.eclipse.jetty.util.Promise;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JettyClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
 @Configuration
 public class RestTemplateConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(RestTemplateConfig.class);
+
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+    private static final int READ_TIMEOUT_MS = 10_000;
+
     @Bean
-    RestClient restClient() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5_000);
-        factory.setReadTimeout(10_000);
-        return RestClient.builder()
-                .requestFactory(factory)
-                .build();
+    RestClient restClient(
+            @Value("${eureka.http.transport:simple}") String transport,
+            @Value("${eureka.http.keep-alive:true}") boolean keepAlive,
+            ObjectProvider<HttpClient> jettyHttpClient
+    ) {
+        RestClient.Builder builder = RestClient.builder();
+
+        if ("jetty".equalsIgnoreCase(transport.trim())) {
+            JettyClientHttpRequestFactory factory = new JettyClientHttpRequestFactory(jettyHttpClient.getObject());
+            factory.setReadTimeout(Duration.ofMillis(READ_TIMEOUT_MS));
+            builder.requestFactory(factory);
+            if (!keepAlive) {
+                builder.defaultHeader(HttpHeaders.CONNECTION, "close");
+            }
+            log.info("[HTTP] Eureka-Transport: Jetty HttpClient mit Connection-Pool (KeepAlive={})", keepAlive);
+        } else {
+            SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+            factory.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            factory.setReadTimeout(READ_TIMEOUT_MS);
+            builder.requestFactory(factory);
+        }
+
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(name = "eureka.http.transport", havingValue = "jetty")
+    HttpClient eurekaJettyHttpClient(
+            @Value("${eureka.http.pool.max-connections-per-route:64}") int maxConnectionsPerRoute,
+            @Value("${eureka.http.pool.max-queued-per-route:1024}") int maxQueuedPerRoute,
+            @Value("${eureka.http.pool.idle-timeout-ms:30000}") long idleTimeoutMs,
+            MeterRegistry meterRegistry
+    ) throws Exception {
+        Timer connectTimer = Timer.builder("eureka_http_pool_connect_time")
+                .description("Dauer des Verbindungsaufbaus zum Eureka Server")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        QueuedThreadPool threadPool = new QueuedThreadPool();
+        threadPool.setName("eureka-http");
+
+        ClientConnector connector = new ClientConnector();
+        connector.setExecutor(threadPool);
+        connector.setConnectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS));
+
+        HttpClient httpClient = new HttpClient(new TimedHttpClientTransport(connector, connectTimer));
+        httpClient.setExecutor(threadPool);
+        httpClient.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        httpClient.setMaxConnectionsPerDestination(maxConnectionsPerRoute);
+        httpClient.setMaxRequestsQueuedPerDestination(maxQueuedPerRoute);
+        // Idle-Eviction: Verbindungen ohne Traffic werden nach idleTimeoutMs geschlossen
+        httpClient.setIdleTimeout(idleTimeoutMs);
+        httpClient.setFollowRedirects(false);
+        httpClient.start();
+
+        registerPoolGauge(meterRegistry, httpClient, "leased", "Anzahl verliehener (aktiver) Verbindungen",
+                AbstractConnectionPool::getActiveConnectionCount);
+        registerPoolGauge(meterRegistry, httpClient, "idle", "Anzahl freier Verbindungen im Pool",
+                AbstractConnectionPool::getIdleConnectionCount);
+        registerPoolGauge(meterRegistry, httpClient, "pending", "Anzahl Verbindungen im Aufbau",
+                AbstractConnectionPool::getPendingConnectionCount);
+
+        Gauge.builder("eureka_http_pool_queued_requests", httpClient, RestTemplateConfig::queuedRequests)
+                .description("Anzahl Requests, die auf eine freie Verbindung warten")
+                .register(meterRegistry);
+
+        log.info("[HTTP] Jetty HttpClient gestartet: MaxConnectionsPerRoute={}, MaxQueuedPerRoute={}, IdleTimeout={}ms",
+                maxConnectionsPerRoute, maxQueuedPerRoute, idleTimeoutMs);
+
+        return httpClient;
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry, HttpClient httpClient, String state,
+                                          String description, ToIntFunction<AbstractConnectionPool> metric) {
+        Gauge.builder("eureka_http_pool_connections", httpClient, client -> sumPools(client, metric))
+                .tag("state", state)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private static double sumPools(HttpClient httpClient, ToIntFunction<AbstractConnectionPool> metric) {
+        int sum = 0;
+        for (var destination : httpClient.getDestinations()) {
+            if (destination instanceof HttpDestination httpDestination
+                    && httpDestination.getConnectionPool() instanceof AbstractConnectionPool pool) {
+                sum += metric.applyAsInt(pool);
+            }
+        }
+        return sum;
+    }
+
+    private static double queuedRequests(HttpClient httpClient) {
+        int sum = 0;
+        for (var destination : httpClient.getDestinations()) {
+            if (destination instanceof HttpDestination httpDestination) {
+                sum += httpDestination.getQueuedRequestCount();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * HTTP/1.1-Transport, der die Dauer jedes neuen Verbindungsaufbaus misst.
+     */
+    static final class TimedHttpClientTransport extends HttpClientTransportOverHTTP {
+
+        private final Timer connectTimer;
+
+        TimedHttpClientTransport(ClientConnector connector, Timer connectTimer) {
+            super(connector);
+            this.connectTimer = connectTimer;
+        }
+
+        @Override
+        public void connect(SocketAddress address, Map<String, Object> context) {
+            @SuppressWarnings("unchecked")
+            Promise<Connection> promise = (Promise<Connection>) context.get(HTTP_CONNECTION_PROMISE_CONTEXT_KEY);
+            if (promise != null) {
+                long start = System.nanoTime();
+                context.put(HTTP_CONNECTION_PROMISE_CONTEXT_KEY, new Promise.Wrapper<>(promise) {
+                    @Override
+                    public void succeeded(Connection connection) {
+                        connectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        super.succeeded(connection);
+                    }
+                });
+            }
+            super.connect(address, context);
+        }
     }
 }
@@ -0,0 +1,102 @@
+package com.example.eurekaclient.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Geparkte Retries, solange Eureka nicht erreichbar ist. Pro Instanz wird höchstens ein Retry gehalten,
+ * eine Registrierung hat Vorrang vor einem Heartbeat. Die Kapazität begrenzt nur Heartbeat-Retries: Ist das Backlog
+ * voll, wird ein neuer Heartbeat-Retry verworfen bzw. für eine Registrierung der älteste verdrängt – der periodische
+ * Heartbeat läuft ohnehin weiter. Registrierungen werden nie verworfen; ihre Zahl ist durch die Anzahl der Instanzen
+ * begrenzt.
+ */
+final class RetryBacklog {
+
+    enum Outcome { PARKED, MERGED, SHED }
+
+    private record Entry(boolean registration, Runnable task, Runnable onEvicted) {
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Entry> parked = new LinkedHashMap<>();
+    private long shed;
+
+    RetryBacklog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param onEvicted wird außerhalb des Locks ausgeführt, wenn dieser Heartbeat-Retry später für eine
+     *                  Registrierung verdrängt wird
+     */
+    Outcome park(long instanceId, boolean registration, Runnable task, Runnable onEvicted) {
+        Entry evicted = null;
+        synchronized (this) {
+            Entry existing = parked.get(instanceId);
+            if (existing != null) {
+                if (registration || !existing.registration()) {
+                    parked.put(instanceId, new Entry(registration, task, onEvicted));
+                }
+                return Outcome.MERGED;
+            }
+            if (parked.size() >= capacity) {
+                if (!registration) {
+                    shed++;
+                    return Outcome.SHED;
+                }
+                evicted = evictOldestHeartbeat();
+                if (evicted != null) {
+                    shed++;
+                }
+            }
+            parked.put(instanceId, new Entry(registration, task, onEvicted));
+        }
+        if (evicted != null) {
+            evicted.onEvicted().run();
+        }
+        return Outcome.PARKED;
+    }
+
+    /**
+     * Entnimmt bis zu {@code max} Retries in Park-Reihenfolge.
+     */
+    synchronized List<Runnable> drain(int max) {
+        List<Runnable> tasks = new ArrayList<>(Math.min(max, parked.size()));
+        Iterator<Map.Entry<Long, Entry>> it = parked.entrySet().iterator();
+        while (it.hasNext() && tasks.size() < max) {
+            tasks.add(it.next().getValue().task());
+            it.remove();
+        }
+        return tasks;
+    }
+
+    synchronized void remove(long instanceId) {
+        parked.remove(instanceId);
+    }
+
+    synchronized int size() {
+        return parked.size();
+    }
+
+    /**
+     * Anzahl verworfener Retries, inkl. verdrängter Heartbeat-Retries.
+     */
+    synchronized long shedCount() {
+        return shed;
+    }
+
+    private Entry evictOldestHeartbeat() {
+        Iterator<Entry> it = parked.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (!entry.registration()) {
+                it.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Globales Retry-Budget über alle Instanzen: Im gleitenden Fenster von {@code window-seconds} dürfen Retries
+ * höchstens {@code ratio} der Erstversuche plus {@code min-per-second} pro Sekunde ausmachen.
+ * <p>
+ * Das Fenster besteht aus Sekunden-Buckets. Beim Wechsel eines Buckets können parallele Zugriffe einzelne
+ * Zählungen verlieren – für eine Obergrenze dieser Art ist das unkritisch.
+ */
+@Component
+public class RetryBudget {
+
+    private final double ratio;
+    private final long minRetriesPerWindow;
+    private final int windowSeconds;
+
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray deposits;
+    private final AtomicLongArray withdrawals;
+
+    private final Counter exhaustedCounter;
+
+    public RetryBudget(
+            @Value("${lifecycle.retry.budget.ratio:0.2}") double ratio,
+            @Value("${lifecycle.retry.budget.window-seconds:10}") int windowSeconds,
+            @Value("${lifecycle.retry.budget.min-per-second:10}") int minPerSecond,
+            MeterRegistry meterRegistry
+    ) {
+        this.ratio = ratio;
+        this.windowSeconds = Math.max(1, windowSeconds);
+        this.minRetriesPerWindow = (long) minPerSecond * this.windowSeconds;
+        this.epochs = new AtomicLongArray(this.windowSeconds);
+        this.deposits = new AtomicLongArray(this.windowSeconds);
+        this.withdrawals = new AtomicLongArray(this.windowSeconds);
+
+        this.exhaustedCounter = Counter.builder("eureka_retry_budget_exhausted_total")
+                .description("Anzahl abgewiesener Retries wegen erschöpftem Retry-Budget")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_retry_budget_balance", this, RetryBudget::balance)
+                .description("Verbleibende Retries im aktuellen Fenster")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Zählt einen Erstversuch (Registrierung oder periodischer Heartbeat).
+     */
+    public void deposit() {
+        deposits.incrementAndGet(bucket(currentSecond()));
+    }
+
+    /**
+     * Bucht einen Retry ab, sofern das Budget reicht.
+     */
+    public boolean tryWithdraw() {
+        long now = currentSecond();
+        int index = bucket(now);
+        if (balance(now) <= 0) {
+            exhaustedCounter.increment();
+            return false;
+        }
+        withdrawals.incrementAndGet(index);
+        return true;
+    }
+
+    long balance() {
+        return balance(currentSecond());
+    }
+
+    private long balance(long now) {
+        long deposited = 0;
+        long withdrawn = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            if (now - epochs.get(i) < windowSeconds) {
+                deposited += deposits.get(i);
+                withdrawn += withdrawals.get(i);
+            }
+        }
+        return (long) (deposited * ratio) + minRetriesPerWindow - withdrawn;
+    }
+
+    private int bucket(long second) {
+        int index = (int) Math.floorMod(second, (long) windowSeconds);
+        long epoch = epochs.get(index);
+        if (epoch != second && epochs.compareAndSet(index, epoch, second)) {
+            deposits.set(index, 0);
+            withdrawals.set(index, 0);
+        }
+        return index;
+    }
+
+    long currentSecond() {
+        return System.nanoTime() / 1_000_000_000L;
+    }
+}
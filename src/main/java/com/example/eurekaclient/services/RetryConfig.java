@@ -0,0 +1,29 @@
+package com.example.eurekaclient.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RetryConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryConfig.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    BackoffPolicy backoffPolicy(
+            @Value("${lifecycle.retry.backoff:decorrelated}") String backoff,
+            @Value("${lifecycle.retry.backoff.base-ms:1000}") long baseMillis,
+            @Value("${lifecycle.retry.backoff.cap-ms:60000}") long capMillis
+    ) {
+        if ("exponential".equalsIgnoreCase(backoff.trim())) {
+            log.info("[Retry] Backoff: exponentiell ohne Jitter (Basis {} ms, max. {} ms)", baseMillis, capMillis);
+            return new ExponentialBackoff(baseMillis, capMillis);
+        }
+        log.info("[Retry] Backoff: Decorrelated Jitter (Basis {} ms, max. {} ms)", baseMillis, capMillis);
+        return new DecorrelatedJitterBackoff(baseMillis, capMillis);
+    }
+}
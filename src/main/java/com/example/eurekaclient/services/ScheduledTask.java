@@ -0,0 +1,11 @@
+package com.example.eurekaclient.services;
+
+/**
+ * Handle auf eine vom {@link LifecycleScheduler} geplante Aufgabe.
+ */
+public interface ScheduledTask {
+
+    void cancel();
+
+    boolean isCancelled();
+}
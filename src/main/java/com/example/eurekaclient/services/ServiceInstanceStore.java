@@ -3,51 +3,267 @@ package com.example.eurekaclient.services;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
+/**
+ * In-Memory-Store der konfigurierten Instanzen.
+ * <p>
+ * Indiziert nach normalisiertem Service-Namen, nach (Service, Host, Port) und nach ID.
+ * Lesezugriffe sind lock-frei, Schreibzugriffe werden pro Service-Name über Lock-Striping serialisiert.
+ * Pro Service-Name existiert höchstens eine Instanz, ein {@link #save} mit gleichem Namen ersetzt die vorhandene.
+ */
 @Slf4j
 @Component
 public class ServiceInstanceStore {
 
-    private final List<ServiceInstance> instances = new CopyOnWriteArrayList<>();
+    private static final int STRIPES = 64;
+    private static final Comparator<ServiceInstance> BY_ID = Comparator.comparing(ServiceInstance::getId);
+
+    private final Map<Long, ServiceInstance> byId = new ConcurrentHashMap<>();
+    private final Map<String, ServiceInstance> byName = new ConcurrentHashMap<>();
+    private final Map<String, ServiceInstance> byEndpoint = new ConcurrentHashMap<>();
+    private final Map<Long, IndexKeys> keysById = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
     private final AtomicLong idCounter = new AtomicLong(1);
+    private final List<Consumer<ServiceInstance>> changeListeners = new CopyOnWriteArrayList<>();
+
+    public ServiceInstanceStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Listener werden nach jedem {@link #save} und {@link #remove} sowie für jede durch {@link #clear}
+     * entfernte Instanz aufgerufen.
+     */
+    public void addChangeListener(Consumer<ServiceInstance> listener) {
+        changeListeners.add(listener);
+    }
 
+    /**
+     * Snapshot aller Instanzen, sortiert nach ID. Sortiert wird nur hier, der Index selbst bleibt ein Hash-Index
+     * mit konstanter Lookup-Zeit.
+     */
     public List<ServiceInstance> getInstances() {
-        return List.copyOf(instances);
+        ServiceInstance[] instances = byId.values().toArray(ServiceInstance[]::new);
+        Arrays.sort(instances, BY_ID);
+        return List.of(instances);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    public ServiceInstance findById(Long id) {
+        return id != null ? byId.get(id) : null;
     }
 
     public ServiceInstance findByServiceNameAndHostNameAndHttpPort(String serviceName, String hostName, int httpPort) {
-        return instances.stream()
-                .filter(i -> i.getServiceName().equalsIgnoreCase(serviceName)
-                        && i.getHostName().equalsIgnoreCase(hostName)
-                        && i.getHttpPort() == httpPort)
-                .findFirst()
-                .orElse(null);
+        return byEndpoint.get(endpointKey(serviceName, hostName, httpPort));
     }
 
     public ServiceInstance findByServiceName(String serviceName) {
-        return instances.stream()
-                .filter(i -> i.getServiceName().equalsIgnoreCase(serviceName))
-                .findFirst()
-                .orElse(null);
+        return byName.get(nameKey(serviceName));
     }
 
-    public synchronized void save(ServiceInstance instance) {
+    public void save(ServiceInstance instance) {
         if (instance.getId() == null) {
             instance.setId(idCounter.getAndIncrement());
             log.debug("[Store] Neue Instanz-ID {} für Service {}", instance.getId(), instance.getServiceName());
         }
 
-        instances.removeIf(i -> i.getServiceName().equalsIgnoreCase(instance.getServiceName()));
-        instances.add(instance);
+        IndexKeys keys = IndexKeys.of(instance);
+        while (true) {
+            IndexKeys previous = keysById.get(instance.getId());
+            String previousName = previous != null ? previous.name() : keys.name();
+            List<ReentrantLock> locks = lockStripes(List.of(keys.name(), previousName));
+            try {
+                if (keysById.get(instance.getId()) != previous) {
+                    // Instanz wurde parallel unter anderem Namen gespeichert – mit aktuellen Keys erneut versuchen
+                    continue;
+                }
+                ServiceInstance displaced = byName.get(keys.name());
+                if (displaced != null && !displaced.getId().equals(instance.getId())) {
+                    unindex(displaced);
+                }
+                if (previous != null) {
+                    unindex(previous, instance.getId());
+                }
+                index(instance, keys);
+            } finally {
+                unlock(locks);
+            }
+            break;
+        }
+
+        changeListeners.forEach(listener -> listener.accept(instance));
+        log.debug("[Store] Instanz {} gespeichert. Gesamt: {}", instance.getServiceName(), size());
+    }
 
-        log.info("[Store] Instanz {} gespeichert. Gesamt: {}", instance.getServiceName(), instances.size());
+    /**
+     * Speichert einen Batch, z. B. beim Import. Semantik wie {@link #save} je Instanz.
+     */
+    public void saveAll(Collection<ServiceInstance> instances) {
+        for (ServiceInstance instance : instances) {
+            save(instance);
+        }
+        log.debug("[Store] Batch mit {} Instanzen gespeichert. Gesamt: {}", instances.size(), size());
     }
 
-    public synchronized void clear() {
-        instances.clear();
+    /**
+     * Schreibt einen Batch in einem Schritt unter allen Stripe-Locks, damit kein paralleler Writer einen halb
+     * angewendeten Batch sieht. Erst werden {@code removed} entfernt, dann {@code saved} wie bei {@link #save}
+     * gespeichert. Listener laufen danach für jede betroffene Instanz.
+     */
+    public void applyBatch(Collection<ServiceInstance> saved, Collection<ServiceInstance> removed) {
+        List<ReentrantLock> locks = lockAll();
+        try {
+            for (ServiceInstance instance : removed) {
+                if (instance.getId() != null) {
+                    unindex(instance);
+                }
+            }
+            for (ServiceInstance instance : saved) {
+                if (instance.getId() == null) {
+                    instance.setId(idCounter.getAndIncrement());
+                }
+                IndexKeys keys = IndexKeys.of(instance);
+                IndexKeys previous = keysById.get(instance.getId());
+                ServiceInstance displaced = byName.get(keys.name());
+                if (displaced != null && !displaced.getId().equals(instance.getId())) {
+                    unindex(displaced);
+                }
+                if (previous != null) {
+                    unindex(previous, instance.getId());
+                }
+                index(instance, keys);
+            }
+        } finally {
+            unlock(locks);
+        }
+        removed.forEach(instance -> changeListeners.forEach(listener -> listener.accept(instance)));
+        saved.forEach(instance -> changeListeners.forEach(listener -> listener.accept(instance)));
+        log.debug("[Store] Batch mit {} gespeicherten und {} entfernten Instanzen angewendet. Gesamt: {}",
+                saved.size(), removed.size(), size());
+    }
+
+    public boolean remove(ServiceInstance instance) {
+        if (instance.getId() == null) {
+            return false;
+        }
+        IndexKeys keys = keysById.get(instance.getId());
+        if (keys == null) {
+            return false;
+        }
+        List<ReentrantLock> locks = lockStripes(List.of(keys.name()));
+        try {
+            if (keysById.get(instance.getId()) != keys) {
+                return false;
+            }
+            unindex(keys, instance.getId());
+        } finally {
+            unlock(locks);
+        }
+        changeListeners.forEach(listener -> listener.accept(instance));
+        log.debug("[Store] Instanz {} entfernt. Gesamt: {}", instance.getServiceName(), size());
+        return true;
+    }
+
+    public void clear() {
+        List<ServiceInstance> removed;
+        List<ReentrantLock> locks = lockAll();
+        try {
+            removed = List.copyOf(byId.values());
+            byId.clear();
+            byName.clear();
+            byEndpoint.clear();
+            keysById.clear();
+        } finally {
+            unlock(locks);
+        }
+        removed.forEach(instance -> changeListeners.forEach(listener -> listener.accept(instance)));
         log.info("[Store] Alle Instanzen gelöscht");
     }
+
+    private void index(ServiceInstance instance, IndexKeys keys) {
+        byId.put(instance.getId(), instance);
+        byName.put(keys.name(), instance);
+        byEndpoint.put(keys.endpoint(), instance);
+        keysById.put(instance.getId(), keys);
+    }
+
+    private void unindex(ServiceInstance instance) {
+        IndexKeys keys = keysById.get(instance.getId());
+        if (keys != null) {
+            unindex(keys, instance.getId());
+        }
+    }
+
+    private void unindex(IndexKeys keys, Long id) {
+        byName.computeIfPresent(keys.name(), (k, v) -> id.equals(v.getId()) ? null : v);
+        byEndpoint.computeIfPresent(keys.endpoint(), (k, v) -> id.equals(v.getId()) ? null : v);
+        keysById.remove(id);
+        byId.remove(id);
+    }
+
+    private List<ReentrantLock> lockStripes(List<String> names) {
+        // Sortiert nach Stripe-Index sperren, damit sich zwei Writer nie gegenseitig blockieren
+        int[] indexes = names.stream().mapToInt(ServiceInstanceStore::stripe).distinct().sorted().toArray();
+        List<ReentrantLock> locks = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            stripes[index].lock();
+            locks.add(stripes[index]);
+        }
+        return locks;
+    }
+
+    private List<ReentrantLock> lockAll() {
+        List<ReentrantLock> locks = new ArrayList<>(STRIPES);
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private static int stripe(String nameKey) {
+        int h = nameKey.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    static String nameKey(String serviceName) {
+        return serviceName == null ? "" : serviceName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String endpointKey(String serviceName, String hostName, int httpPort) {
+        String host = hostName == null ? "" : hostName.trim().toLowerCase(Locale.ROOT);
+        return nameKey(serviceName) + '|' + host + '|' + httpPort;
+    }
+
+    private record IndexKeys(String name, String endpoint) {
+
+        static IndexKeys of(ServiceInstance instance) {
+            return new IndexKeys(nameKey(instance.getServiceName()),
+                    endpointKey(instance.getServiceName(), instance.getHostName(), instance.getHttpPort()));
+        }
+    }
 }
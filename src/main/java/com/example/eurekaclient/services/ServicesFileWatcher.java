@@ -0,0 +1,213 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Beobachtet services.json und wendet Änderungen inkrementell an.
+ * <p>
+ * Überwacht wird das Verzeichnis, nicht die Datei: Kubernetes tauscht gemountete ConfigMaps über
+ * einen Symlink ({@code ..data}) aus, die Datei selbst meldet dabei kein Event. Event-Bursts werden
+ * gebündelt, und über eine SHA-256-Prüfsumme werden Reloads ohne inhaltliche Änderung übersprungen.
+ */
+@Slf4j
+@Component
+public class ServicesFileWatcher {
+
+    private final StartupService startupService;
+    private final IncrementalRefreshService refreshService;
+
+    private final Counter reloadCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Timer reloadTimer;
+
+    @Value("${store.json.path}")
+    private Resource storeJsonResource;
+
+    @Value("${store.json.watch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${store.json.watch.debounce-ms:500}")
+    private long debounceMs;
+
+    private volatile WatchService watchService;
+    private volatile byte[] lastChecksum;
+    private ScheduledExecutorService debouncer;
+    private ScheduledFuture<?> pendingReload;
+    private Path file;
+
+    public ServicesFileWatcher(StartupService startupService,
+                               IncrementalRefreshService refreshService,
+                               MeterRegistry meterRegistry) {
+        this.startupService = startupService;
+        this.refreshService = refreshService;
+
+        this.reloadCounter = Counter.builder("eureka_services_reload_total")
+                .description("Anzahl angewendeter Reloads der services.json")
+                .register(meterRegistry);
+
+        this.skippedCounter = Counter.builder("eureka_services_reload_skipped_total")
+                .description("Anzahl übersprungener Reloads ohne inhaltliche Änderung")
+                .register(meterRegistry);
+
+        this.failedCounter = Counter.builder("eureka_services_reload_failed_total")
+                .description("Anzahl fehlgeschlagener Reloads der services.json")
+                .register(meterRegistry);
+
+        this.reloadTimer = Timer.builder("eureka_services_reload_duration")
+                .description("Dauer eines Reloads der services.json inkl. Lifecycle-Änderungen")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!storeJsonResource.isFile()) {
+                log.warn("[Watcher] {} ist keine Datei im Dateisystem – Überwachung deaktiviert", storeJsonResource);
+                return;
+            }
+            file = storeJsonResource.getFile().toPath().toAbsolutePath();
+            Path directory = file.getParent();
+
+            lastChecksum = checksum(file);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+
+            debouncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "services-reload");
+                t.setDaemon(true);
+                return t;
+            });
+
+            Thread watchThread = new Thread(this::watchLoop, "services-watcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+
+            log.info("[Watcher] Überwache {} (Debounce {} ms)", file, debounceMs);
+        } catch (IOException e) {
+            log.error("[Watcher] Überwachung von {} konnte nicht gestartet werden: {}",
+                    storeJsonResource, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        WatchService ws = watchService;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException e) {
+                log.debug("[Watcher] Fehler beim Schließen des WatchService: {}", e.getMessage());
+            }
+        }
+        if (debouncer != null) {
+            debouncer.shutdownNow();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // Jedes Event im Verzeichnis zählt: beim ConfigMap-Swap ändern sich nur ..data und der Zeitstempel-Ordner
+                boolean relevant = !key.pollEvents().isEmpty();
+                if (relevant) {
+                    scheduleReload();
+                }
+                if (!key.reset()) {
+                    log.warn("[Watcher] Verzeichnis von {} ist nicht mehr verfügbar – Überwachung beendet", file);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("[Watcher] WatchService geschlossen");
+        }
+    }
+
+    private synchronized void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = debouncer.schedule(this::reload, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    void reload() {
+        long start = System.nanoTime();
+        try {
+            if (!Files.exists(file)) {
+                log.warn("[Watcher] {} existiert (noch) nicht – Reload übersprungen", file);
+                return;
+            }
+            byte[] checksum = checksum(file);
+            if (Arrays.equals(checksum, lastChecksum)) {
+                skippedCounter.increment();
+                log.debug("[Watcher] Inhalt unverändert – Reload übersprungen");
+                return;
+            }
+
+            var result = refreshService.apply(startupService.readServices());
+            lastChecksum = checksum;
+            reloadCounter.increment();
+            reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            log.info("[Watcher] services.json neu geladen (SHA-256 {}): {} neu, {} entfernt, {} geändert, {} unverändert",
+                    HexFormat.of().formatHex(checksum, 0, 8),
+                    result.added(), result.removed(), result.changed(), result.unchanged());
+        } catch (Exception e) {
+            // Prüfsumme bleibt alt, damit die korrigierte Datei beim nächsten Event angewendet wird
+            failedCounter.increment();
+            log.error("[Watcher] Reload von {} fehlgeschlagen: {}", file, e.getMessage(), e);
+        }
+    }
+
+    private static byte[] checksum(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.eurekaclient.services;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -11,7 +18,20 @@ import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -19,30 +39,103 @@ public class StartupService {
 
     private final ObjectMapper mapper = new ObjectMapper();
     private final ServiceInstanceStore store;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private final Counter importedCounter;
+    private final Timer importTimer;
+    private final AtomicLong lastRate = new AtomicLong();
+    private final AtomicLong lastPeakHeap = new AtomicLong();
 
     @Value("${store.json.path}")
     private Resource storeJsonResource;
 
-    public StartupService(ServiceInstanceStore store) {
+    @Value("${store.json.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${store.json.import.overlap-registration:false}")
+    private boolean overlapRegistration;
+
+    @Value("${store.json.import.overlap-queue:4}")
+    private int overlapQueue;
+
+    public StartupService(ServiceInstanceStore store, MeterRegistry meterRegistry) {
         this.store = store;
+
+        this.importedCounter = Counter.builder("eureka_services_import_entries_total")
+                .description("Anzahl aus services.json importierter Einträge")
+                .register(meterRegistry);
+
+        this.importTimer = Timer.builder("eureka_services_import_duration")
+                .description("Dauer des Imports der services.json")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_services_import_rate", lastRate, AtomicLong::get)
+                .description("Durchsatz des letzten Imports in Einträgen pro Sekunde")
+                .register(meterRegistry);
+
+        Gauge.builder("eureka_services_import_peak_heap_bytes", lastPeakHeap, AtomicLong::get)
+                .description("Höchster gemessener Heap-Verbrauch während des letzten Imports")
+                .register(meterRegistry);
     }
 
     @Bean
     public ApplicationRunner importAndStartServices(LifecycleManager lifecycleManager) {
         return args -> {
-            loadAndImportServices();
-            startAllLifecycles(lifecycleManager);
+            if (overlapRegistration) {
+                importAndStartOverlapped(lifecycleManager);
+            } else {
+                loadAndImportServices();
+                startAllLifecycles(lifecycleManager);
+            }
         };
     }
 
     public void loadAndImportServices() throws IOException {
-        String json = new String(storeJsonResource.getInputStream().readAllBytes());
+        loadAndImportServices(batch -> {});
+    }
+
+    /**
+     * Importiert services.json als Token-Stream in Batches von {@code store.json.import.batch-size}.
+     * Nach jedem gespeicherten Batch wird {@code onBatch} mit den Instanzen aus dem Store aufgerufen.
+     * Bei Parse-Fehlern bleiben bereits gespeicherte Batches erhalten.
+     */
+    public void loadAndImportServices(Consumer<List<ServiceInstance>> onBatch) throws IOException {
+        long start = System.nanoTime();
+        ImportProgress progress = new ImportProgress(memory.getHeapMemoryUsage().getUsed());
 
-        if (json.length() > 0) {
-            importServices(json);
-        } else {
-            log.warn("Keine services.json gefunden – überspringe Import.");
+        try {
+            boolean found = streamServices(batch -> {
+                List<ServiceInstance> stored = importBatch(batch);
+                progress.entries += batch.size();
+                progress.peakHeap = Math.max(progress.peakHeap, memory.getHeapMemoryUsage().getUsed());
+                importedCounter.increment(batch.size());
+                onBatch.accept(stored);
+            });
+            if (!found) {
+                log.warn("Keine services.json gefunden – überspringe Import.");
+                return;
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Fehler beim Import von services.json nach {} Einträgen: {}", progress.entries, e.getMessage(), e);
         }
+
+        long durationNanos = System.nanoTime() - start;
+        long rate = durationNanos > 0 ? progress.entries * 1_000_000_000L / durationNanos : progress.entries;
+        importTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        lastRate.set(rate);
+        lastPeakHeap.set(progress.peakHeap);
+
+        log.info("[Import] {} Einträge in {} ms importiert ({} Einträge/s, Peak-Heap {} MB)",
+                progress.entries, TimeUnit.NANOSECONDS.toMillis(durationNanos), rate, progress.peakHeap / (1024 * 1024));
+    }
+
+    /**
+     * Liest services.json, ohne den Store zu verändern. Parse-Fehler werden weitergereicht.
+     */
+    public List<ServiceInstance> readServices() throws IOException {
+        List<ServiceInstance> instances = new ArrayList<>();
+        streamServices(instances::addAll);
+        return instances;
     }
 
     public void startAllLifecycles(LifecycleManager lifecycleManager) {
@@ -52,39 +145,102 @@ public class StartupService {
         });
     }
 
-    private void importServices(String json) {
+    /**
+     * Registriert bereits importierte Batches, während der Parser weiterliest. Die Übergabe ist
+     * auf {@code store.json.import.overlap-queue} Batches begrenzt, danach registriert der Parser-Thread selbst.
+     */
+    private void importAndStartOverlapped(LifecycleManager lifecycleManager) throws IOException, InterruptedException {
+        Set<Long> started = ConcurrentHashMap.newKeySet();
+        ThreadPoolExecutor starter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, overlapQueue)),
+                r -> new Thread(r, "lifecycle-ramp-up"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
         try {
-            List<ServiceInstance> instances = mapper.readValue(
-                    json,
-                    new TypeReference<List<ServiceInstance>>() {}
-            );
-
-            for (ServiceInstance instance : instances) {
-                ServiceInstance existing = this.store.findByServiceNameAndHostNameAndHttpPort(
-                        instance.getServiceName(),
-                        instance.getHostName(),
-                        instance.getHttpPort()
-                );
-
-                if (existing != null) {
-                    updateExistingInstance(existing, instance);
-                    this.store.save(existing);
-                    log.info("Aktualisiert: {}", existing.getServiceName());
-                } else {
-                    this.store.save(instance);
-                    log.info("Neu importiert: {}", instance.getServiceName());
+            loadAndImportServices(batch -> starter.execute(() -> batch.forEach(instance -> {
+                // Im selben Import aktualisierte Instanzen nur einmal starten
+                if (started.add(instance.getId())) {
+                    lifecycleManager.startLifecycle(instance);
+                    log.debug("Lifecycle gestartet für: {}", instance.getServiceName());
                 }
+            })));
+        } finally {
+            starter.shutdown();
+            starter.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        log.info("Lifecycle gestartet für {} Instanzen", started.size());
+    }
+
+    /**
+     * Liest das JSON-Array Element für Element; Zeichensatz (UTF-8/16/32) erkennt Jackson am Byte-Stream.
+     *
+     * @return {@code false}, wenn die Datei leer ist
+     */
+    private boolean streamServices(Consumer<List<ServiceInstance>> sink) throws IOException {
+        try (InputStream in = storeJsonResource.getInputStream();
+             JsonParser parser = mapper.createParser(in)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return false;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "services.json muss ein JSON-Array enthalten");
             }
 
-        } catch (Exception e) {
-            log.error("Fehler beim Import von services.json: {}", e.getMessage(), e);
+            List<ServiceInstance> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                batch.add(mapper.readValue(parser, ServiceInstance.class));
+                if (batch.size() >= batchSize) {
+                    sink.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+            }
+            return true;
         }
     }
 
+    private List<ServiceInstance> importBatch(List<ServiceInstance> batch) {
+        // Dubletten innerhalb eines Batches zusammenführen, bevor der Store sie sieht
+        Map<String, ServiceInstance> merged = new LinkedHashMap<>(batch.size() * 2);
+        for (ServiceInstance instance : batch) {
+            String key = ServiceInstanceStore.endpointKey(
+                    instance.getServiceName(), instance.getHostName(), instance.getHttpPort());
+            ServiceInstance existing = merged.get(key);
+            if (existing == null) {
+                existing = this.store.findByServiceNameAndHostNameAndHttpPort(
+                        instance.getServiceName(), instance.getHostName(), instance.getHttpPort());
+            }
+
+            if (existing != null) {
+                updateExistingInstance(existing, instance);
+                merged.put(key, existing);
+                log.debug("Aktualisiert: {}", existing.getServiceName());
+            } else {
+                merged.put(key, instance);
+                log.debug("Neu importiert: {}", instance.getServiceName());
+            }
+        }
+
+        List<ServiceInstance> stored = List.copyOf(merged.values());
+        this.store.saveAll(stored);
+        return stored;
+    }
+
     private void updateExistingInstance(ServiceInstance existing, ServiceInstance imported) {
         existing.setSecurePort(imported.getSecurePort());
         existing.setDataCenterInfoName(imported.getDataCenterInfoName());
         existing.setStatus(imported.getStatus());
         existing.setIpAddr(imported.getIpAddr());
     }
+
+    private static final class ImportProgress {
+        long entries;
+        long peakHeap;
+
+        ImportProgress(long heapUsed) {
+            this.peakHeap = heapUsed;
+        }
+    }
 }
@@ -1,9 +1,18 @@
 package com.example.eurekaclient.web;
 
+import com.example.eurekaclient.services.BulkStatusRequest;
+import com.example.eurekaclient.services.BulkStatusResponse;
+import com.example.eurekaclient.services.InstanceBatchRequest;
+import com.example.eurekaclient.services.InstanceBatchResponse;
+import com.example.eurekaclient.services.InstanceBatchService;
+import com.example.eurekaclient.services.InstanceOperationService;
+import com.example.eurekaclient.services.InstanceStatusService;
 import com.example.eurekaclient.services.LifecycleManager;
+import com.example.eurekaclient.services.OperationStatus;
 import com.example.eurekaclient.services.ServiceInstance;
 import com.example.eurekaclient.services.UpdateInstanceRequest;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,7 +26,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -31,6 +42,9 @@ import java.util.List;
 public class ServiceInstanceController {
 
     private final LifecycleManager lifecycleManager;
+    private final InstanceBatchService instanceBatchService;
+    private final InstanceOperationService instanceOperationService;
+    private final InstanceStatusService instanceStatusService;
 
     @GetMapping("/configured")
     @Operation(
@@ -78,7 +92,8 @@ public class ServiceInstanceController {
         description = "Aktualisiert Host, IP-Adresse und/oder Ports einer laufenden Service-Instance. " +
                       "Der Lifecycle-Manager meldet die Instanz zunächst von Eureka ab, übernimmt die neuen Parameter " +
                       "und registriert die Instanz anschließend neu. Der Vorgang ist idempotent, sofern dieselben " +
-                      "Parameter erneut übergeben werden."
+                      "Parameter erneut übergeben werden. Mit async=true wird das Update nur angenommen (202) und im " +
+                      "Hintergrund ausgeführt; der Fortschritt ist unter /instances/operations/{id} abrufbar."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -89,6 +104,14 @@ public class ServiceInstanceController {
                 schema = @Schema(type = "string", example = "Instanz 'my-service' erfolgreich aktualisiert und neu gestartet.")
             )
         ),
+        @ApiResponse(
+            responseCode = "202",
+            description = "Nur mit async=true: Update angenommen, Location verweist auf den Status der Operation.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = OperationStatus.class)
+            )
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Ungültige Eingabe – Pflichtfelder fehlen oder Werte außerhalb des erlaubten Bereichs.",
@@ -104,21 +127,35 @@ public class ServiceInstanceController {
                 mediaType = "application/json",
                 schema = @Schema(type = "string", example = "ServiceInstance 'unknown-service' nicht gefunden.")
             )
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Nur mit async=true: Queue für asynchrone Operationen ist voll, später erneut versuchen.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = "string", example = "Zu viele laufende Operationen, bitte später erneut versuchen.")
+            )
         )
     })
-    public ResponseEntity<String> updateInstance(
+    public ResponseEntity<?> updateInstance(
         @RequestBody(
             description = "Neue Verbindungsparameter der zu aktualisierenden Service-Instance. " +
                           "Pflichtfeld: serviceName (Identifikation). Alle übrigen Felder überschreiben die bisherige Konfiguration.",
             required = true,
             content = @Content(schema = @Schema(implementation = UpdateInstanceRequest.class))
         )
-        @org.springframework.web.bind.annotation.RequestBody @Valid UpdateInstanceRequest request
+        @org.springframework.web.bind.annotation.RequestBody @Valid UpdateInstanceRequest request,
+        @Parameter(description = "Update im Hintergrund ausführen und sofort mit 202 antworten.")
+        @RequestParam(defaultValue = "false") boolean async
     ) {
 
-        log.info("Update-Request für ServiceInstance: {}", request.getServiceName());
+        log.info("Update-Request für ServiceInstance: {} (async={})", request.getServiceName(), async);
+
+        if (async) {
+            return submitUpdate(request);
+        }
 
-        ServiceInstance instance = lifecycleManager.updateInstance(request);
+        ServiceInstance instance = instanceOperationService.update(request);
 
         if (instance == null) {
             log.warn("ServiceInstance '{}' nicht gefunden", request.getServiceName());
@@ -131,4 +168,139 @@ public class ServiceInstanceController {
                 "Instanz '" + request.getServiceName() + "' erfolgreich aktualisiert und neu gestartet."
         );
     }
+
+    @PutMapping("/status")
+    @Operation(
+        operationId = "changeInstanceStatus",
+        summary = "Status mehrerer Instanzen bei Eureka setzen",
+        description = "Setzt den Eureka-Status (z. B. OUT_OF_SERVICE) aller über serviceNames und/oder serviceNamePattern " +
+                      "ausgewählten laufenden Instanzen über den Status-Override von Eureka. Es wird weder abgemeldet noch " +
+                      "neu registriert, Heartbeats laufen weiter. UP hebt den Override wieder auf."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Statuswechsel ausgeführt; das Ergebnis pro Instanz steht in results.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = BulkStatusResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Ungültige Eingabe – unbekannter Status oder weder serviceNames noch serviceNamePattern angegeben.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = "object", example = "{\"status\": \"status muss UP, DOWN, STARTING, OUT_OF_SERVICE oder UNKNOWN sein\"}")
+            )
+        )
+    })
+    public ResponseEntity<BulkStatusResponse> changeStatus(
+        @RequestBody(
+            description = "Zielstatus und Auswahl der Instanzen.",
+            required = true,
+            content = @Content(schema = @Schema(implementation = BulkStatusRequest.class))
+        )
+        @org.springframework.web.bind.annotation.RequestBody @Valid BulkStatusRequest request
+    ) {
+
+        log.info("Status-Request {} für serviceNames={} pattern={}",
+                request.getStatus(), request.getServiceNames(), request.getServiceNamePattern());
+
+        return ResponseEntity.ok(instanceStatusService.changeStatus(request));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+        operationId = "applyInstanceBatch",
+        summary = "Instanzen im Batch anlegen, ändern und entfernen",
+        description = "Prüft zuerst den kompletten Batch (Pflichtfelder, doppelte Namen, CREATE nur für neue, UPDATE und " +
+                      "DELETE nur für vorhandene Services). Ist ein Eintrag ungültig, wird nichts geändert. Sonst werden " +
+                      "geänderte und entfernte Instanzen deregistriert, alle Änderungen in einem Schritt gespeichert und " +
+                      "neue sowie geänderte Instanzen registriert – parallel mit begrenzter Anzahl gleichzeitiger Aufrufe. " +
+                      "Instanzen ohne Änderung behalten ihren Heartbeat."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch angewendet; das Ergebnis und die Dauer pro Eintrag stehen in results.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = InstanceBatchResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Batch abgelehnt, nichts wurde geändert. Bei Feldfehlern eine Map Feld → Meldung, sonst das " +
+                          "Ergebnis mit INVALID bei den betroffenen Einträgen.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = InstanceBatchResponse.class)
+            )
+        )
+    })
+    public ResponseEntity<InstanceBatchResponse> applyBatch(
+        @RequestBody(
+            description = "Einträge mit Aktion CREATE, UPDATE oder DELETE.",
+            required = true,
+            content = @Content(schema = @Schema(implementation = InstanceBatchRequest.class))
+        )
+        @org.springframework.web.bind.annotation.RequestBody @Valid InstanceBatchRequest request
+    ) {
+
+        log.info("Batch-Request mit {} Einträgen", request.getItems().size());
+
+        InstanceBatchResponse response = instanceBatchService.apply(request);
+        return ResponseEntity.status(response.applied() ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @GetMapping("/operations/{id}")
+    @Operation(
+        operationId = "getOperation",
+        summary = "Status einer asynchronen Operation abrufen",
+        description = "Gibt den Status einer mit async=true angenommenen Operation zurück (QUEUED, RUNNING, SUCCEEDED, " +
+                      "FAILED). Abgeschlossene Operationen bleiben für eine konfigurierbare Zeit abrufbar."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Status der Operation.",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = OperationStatus.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Unbekannte oder bereits abgelaufene Operation."
+        )
+    })
+    public ResponseEntity<OperationStatus> getOperation(
+        @Parameter(description = "ID aus der 202-Antwort.") @PathVariable String id
+    ) {
+        OperationStatus status = instanceOperationService.find(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<?> submitUpdate(UpdateInstanceRequest request) {
+        OperationStatus operation;
+        try {
+            operation = instanceOperationService.submitUpdate(request);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .body("Zu viele laufende Operationen, bitte später erneut versuchen.");
+        }
+
+        if (operation == null) {
+            log.warn("ServiceInstance '{}' nicht gefunden", request.getServiceName());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("ServiceInstance '" + request.getServiceName() + "' nicht gefunden.");
+        }
+
+        log.info("Update für ServiceInstance '{}' angenommen: Operation {}", request.getServiceName(), operation.id());
+        return ResponseEntity.accepted()
+                .location(URI.create("/instances/operations/" + operation.id()))
+                .body(operation);
+    }
 }
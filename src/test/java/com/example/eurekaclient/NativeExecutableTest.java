@@ -0,0 +1,217 @@
+package com.example.eurekaclient;
+
+import com.example.eurekaclient.stub.StubEurekaServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Black-Box-Test des gebauten Executables gegen den {@link StubEurekaServer}: Lifecycle, Web-UI, REST-API,
+ * OpenAPI und Actuator.
+ * <p>
+ * Läuft mit {@code mvn -Pnative verify} gegen {@code target/eurekaclient}. Mit
+ * {@code -Dnative.command="java -jar target/eurekaclient-0.0.1-SNAPSHOT.jar" -Dnative.label=jvm} läuft derselbe Test
+ * gegen die JVM. Startzeit (bis zur ersten Registrierung) und RSS landen in {@code target/native/<label>.json}.
+ */
+@Tag("native")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeExecutableTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeExecutableTest.class);
+
+    private static final int INSTANCES = 3;
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private static final Map<String, Object> report = new LinkedHashMap<>();
+
+    private static StubEurekaServer stub;
+    private static Process process;
+    private static Path servicesJson;
+    private static String base;
+
+    @BeforeAll
+    static void start() throws Exception {
+        List<String> command = new ArrayList<>(Arrays.asList(
+                System.getProperty("native.command", "target/eurekaclient").trim().split("\\s+")));
+        assumeTrue(command.size() > 1 || Files.isExecutable(Path.of(command.get(0))),
+                "Kein Executable unter " + command.get(0) + " – zuerst mvn -Pnative package");
+
+        stub = StubEurekaServer.start(0, 1, TimeUnit.SECONDS);
+        servicesJson = Files.createTempFile("native-services", ".json");
+        Files.writeString(servicesJson, services());
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        base = "http://127.0.0.1:" + port;
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--EUREKA_SERVER_URL=" + stub.baseUrl(),
+                "--store.json.path=file:" + servicesJson.toAbsolutePath(),
+                "--lifecycle.heartbeat.interval.seconds=1",
+                "--management.endpoints.web.exposure.include=health,info,metrics,prometheus,refresh,lifecycle,journal"));
+
+        Path logFile = Path.of("target", "native", label() + ".log");
+        Files.createDirectories(logFile.getParent());
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logFile.toFile()).start();
+
+        await(() -> stub.leaseCount() == INSTANCES, 60, "Registrierung aller Instanzen");
+        report.put("firstRegistrationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        report.put("rssMbAfterRegistration", rssMb());
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (process != null && process.isAlive()) {
+            process.destroy();
+            assertTrue(process.waitFor(30, TimeUnit.SECONDS), "Prozess endet nicht nach SIGTERM");
+        }
+        if (stub != null) {
+            report.put("deregistrations", stub.deregistrations());
+            stub.close();
+        }
+        if (servicesJson != null) {
+            Files.deleteIfExists(servicesJson);
+            log.info("[Native] {}: {}", label(), report);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(Path.of("target", "native", label() + ".json").toFile(), report);
+        }
+    }
+
+    @Test
+    @Order(1)
+    void lifecycle_registersAndSendsHeartbeats() throws Exception {
+        await(() -> stub.heartbeats() >= 2L * INSTANCES, 30, "Heartbeats");
+        assertEquals(INSTANCES, stub.registrations());
+    }
+
+    @Test
+    @Order(2)
+    void web_rendersClientsAndUpdatesInstance() throws Exception {
+        HttpResponse<String> page = get("/clients");
+        assertEquals(200, page.statusCode());
+        assertTrue(page.body().contains("NATIVE-SERVICE-0"));
+
+        HttpResponse<String> running = get("/instances/running");
+        assertEquals(200, running.statusCode());
+        assertTrue(running.body().contains("\"serviceName\":\"NATIVE-SERVICE-1\""));
+
+        HttpResponse<String> update = send(HttpRequest.newBuilder(URI.create(base + "/instances/update"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"serviceName\":\"NATIVE-SERVICE-2\",\"newHostName\":\"native-2\","
+                        + "\"newIpAddress\":\"127.0.0.3\",\"httpPort\":8081,\"securePort\":8443,\"sslPreferred\":false}")));
+        assertEquals(200, update.statusCode(), update.body());
+
+        HttpResponse<String> invalid = send(HttpRequest.newBuilder(URI.create(base + "/instances/update"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"serviceName\":\"\",\"httpPort\":0}")));
+        assertEquals(400, invalid.statusCode());
+
+        HttpResponse<String> apiDocs = get("/v3/api-docs");
+        assertEquals(200, apiDocs.statusCode());
+        assertTrue(apiDocs.body().contains("updateInstance"));
+        assertTrue(apiDocs.body().contains("Repräsentiert eine bei Eureka registrierbare"));
+    }
+
+    @Test
+    @Order(3)
+    void actuator_endpointsRespond() throws Exception {
+        await(() -> stub.leaseCount() == INSTANCES, 30, "Neu-Registrierung nach Update");
+
+        HttpResponse<String> health = get("/actuator/health");
+        assertEquals(200, health.statusCode(), health.body());
+        assertTrue(health.body().contains("\"UP\""));
+
+        assertTrue(get("/actuator/info").body().contains("eurekaClients.runningCount"));
+        assertTrue(get("/actuator/prometheus").body().contains("eureka_registrations_total"));
+        assertTrue(get("/actuator/lifecycle").body().contains("\"states\""));
+        assertTrue(get("/actuator/journal").body().contains("REGISTERED"));
+
+        HttpResponse<String> refresh = send(HttpRequest.newBuilder(URI.create(base + "/actuator/refresh"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"mode\":\"diff\"}")));
+        assertEquals(200, refresh.statusCode());
+        assertTrue(refresh.body().contains("\"success\""), refresh.body());
+
+        report.put("rssMbAfterTests", rssMb());
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(base + path)).GET());
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void await(BooleanSupplier condition, long seconds, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean()) {
+            assertTrue(process.isAlive(), "Prozess beendet, siehe target/native/" + label() + ".log");
+            assertTrue(System.nanoTime() < deadline, what + " nach " + seconds + " s nicht erreicht");
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    /**
+     * Resident Set Size aus {@code /proc}, -1 außerhalb von Linux.
+     */
+    private static long rssMb() throws IOException {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+        return -1;
+    }
+
+    private static String services() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < INSTANCES; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"serviceName\":\"NATIVE-SERVICE-").append(i)
+                    .append("\",\"hostName\":\"native-").append(i)
+                    .append("\",\"httpPort\":8080,\"securePort\":8443,\"ipAddr\":\"127.0.0.").append(i + 1)
+                    .append("\",\"dataCenterInfoName\":\"MyOwn\",\"status\":\"UP\",\"sslPreferred\":false}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static String label() {
+        return System.getProperty("native.label", "native");
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.eurekaclient.config;
+
+import com.example.eurekaclient.actuator.EurekaClientsHealthIndicator;
+import com.example.eurekaclient.actuator.EurekaClientsInfoContributor;
+import com.example.eurekaclient.actuator.RefreshEndpoint;
+import com.example.eurekaclient.services.ServiceInstance;
+import com.example.eurekaclient.services.UpdateInstanceRequest;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EurekaClientRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setup() {
+        new EurekaClientRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void jacksonBinding_coversInstanceAndUpdateRequest() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ServiceInstance.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UpdateInstanceRequest.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void template_isIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/clients.html").test(hints));
+    }
+
+    @Test
+    void actuatorAndSpringdoc_areReflective() {
+        for (Class<?> type : new Class<?>[]{RefreshEndpoint.class, EurekaClientsHealthIndicator.class,
+                EurekaClientsInfoContributor.class, Schema.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints), type.getName());
+        }
+    }
+}
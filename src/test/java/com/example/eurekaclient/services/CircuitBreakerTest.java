@@ -0,0 +1,62 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final CircuitBreaker breaker = new CircuitBreaker(
+            new CircuitBreaker.Settings(10, 4, 0.5, 1000, 0.8, 50, 2));
+
+    @Test
+    void opensWhenFailureRateExceeded() {
+        breaker.onResult(true, FAST);
+        breaker.onResult(true, FAST);
+        breaker.onResult(false, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.onResult(false, FAST));
+
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.isCallPermitted());
+    }
+
+    @Test
+    void opensWhenCallsAreSlow() {
+        long slow = TimeUnit.SECONDS.toNanos(2);
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(true, slow);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.onResult(true, slow));
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulProbes() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(false, FAST);
+        }
+        Thread.sleep(60);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onResult(true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.onResult(true, FAST));
+    }
+
+    @Test
+    void halfOpenReopensOnFailure() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(false, FAST);
+        }
+        Thread.sleep(60);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.onResult(false, FAST));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecorrelatedJitterBackoffTest {
+
+    private final BackoffPolicy backoff = new DecorrelatedJitterBackoff(1000, 60000);
+
+    @Test
+    void nextDelay_staysWithinBaseAndThreeTimesPrevious() {
+        long previous = 0;
+        for (int attempt = 1; attempt <= 50; attempt++) {
+            long delay = backoff.nextDelayMillis(attempt, previous);
+            assertTrue(delay >= 1000, "delay " + delay);
+            assertTrue(delay <= Math.min(60000, Math.max(1000, previous) * 3), "delay " + delay);
+            previous = delay;
+        }
+    }
+
+    @Test
+    void nextDelay_spreadsSimultaneousRetries() {
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            delays.add(backoff.nextDelayMillis(1, 0));
+        }
+        assertTrue(delays.size() > 10);
+    }
+
+    @Test
+    void exponentialBackoff_matchesPreviousBehaviour() {
+        BackoffPolicy exponential = new ExponentialBackoff(1000, 60000);
+
+        assertEquals(1000, exponential.nextDelayMillis(1, 0));
+        assertEquals(8000, exponential.nextDelayMillis(4, 0));
+        assertEquals(60000, exponential.nextDelayMillis(40, 0));
+    }
+}
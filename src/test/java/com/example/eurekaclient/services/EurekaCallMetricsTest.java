@@ -0,0 +1,83 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EurekaCallMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void recordCall_tagsOperationOutcomeAndHost() {
+        EurekaCallMetrics metrics = new EurekaCallMetrics(meterRegistry, new long[]{100, 1000}, false, 0);
+
+        metrics.recordCall(EurekaCallMetrics.Operation.REGISTER, "eureka-1:8761", EurekaCallResult.OK,
+                TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordCall(EurekaCallMetrics.Operation.REGISTER, "eureka-1:8761", EurekaCallResult.OK,
+                TimeUnit.MILLISECONDS.toNanos(60));
+
+        var timer = meterRegistry.get("eureka_call_duration")
+                .tags("operation", "register", "outcome", "ok", "host", "eureka-1:8761").timer();
+        assertEquals(2, timer.count());
+        assertEquals(100, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertNull(meterRegistry.find("eureka_instance_call_duration").timer());
+    }
+
+    @Test
+    void recordInstance_stopsAddingTagsAtLimit() {
+        EurekaCallMetrics metrics = new EurekaCallMetrics(meterRegistry, new long[]{100}, true, 2);
+
+        metrics.recordInstance(EurekaCallMetrics.Operation.HEARTBEAT, "a", EurekaCallResult.OK, 1);
+        metrics.recordInstance(EurekaCallMetrics.Operation.HEARTBEAT, "b", EurekaCallResult.OK, 1);
+        metrics.recordInstance(EurekaCallMetrics.Operation.HEARTBEAT, "c", EurekaCallResult.OK, 1);
+        metrics.recordInstance(EurekaCallMetrics.Operation.HEARTBEAT, "a", EurekaCallResult.OK, 1);
+
+        assertEquals(2, meterRegistry.get("eureka_instance_call_duration").tag("instance", "a").timer().count());
+        assertNull(meterRegistry.find("eureka_instance_call_duration").tag("instance", "c").timer());
+        assertEquals(1.0, meterRegistry.counter("eureka_instance_metrics_dropped_total").count());
+    }
+
+    @Test
+    void removeInstance_freesSlotAndRemovesTimers() {
+        EurekaCallMetrics metrics = new EurekaCallMetrics(meterRegistry, new long[]{100}, true, 1);
+        metrics.recordInstance(EurekaCallMetrics.Operation.HEARTBEAT, "a", EurekaCallResult.OK, 1);
+        metrics.recordInstance(EurekaCallMetrics.Operation.DEREGISTER, "a", EurekaCallResult.OK, 1);
+
+        metrics.removeInstance("a");
+        metrics.recordInstance(EurekaCallMetrics.Operation.REGISTER, "b", EurekaCallResult.OK, 1);
+
+        assertNull(meterRegistry.find("eureka_instance_call_duration").tag("instance", "a").timer());
+        assertEquals(1, meterRegistry.get("eureka_instance_call_duration").tag("instance", "b").timer().count());
+        assertEquals(0.0, meterRegistry.counter("eureka_instance_metrics_dropped_total").count());
+    }
+
+    @Test
+    void recordInstance_concurrentFirstCalls_neverExceedLimit() throws Exception {
+        EurekaCallMetrics metrics = new EurekaCallMetrics(meterRegistry, new long[]{100}, true, 10);
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                String instanceId = "i-" + i;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    metrics.recordInstance(EurekaCallMetrics.Operation.HEARTBEAT, instanceId, EurekaCallResult.OK, 1);
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(10, meterRegistry.find("eureka_instance_call_duration").timers().size());
+        assertEquals(190.0, meterRegistry.counter("eureka_instance_metrics_dropped_total").count());
+    }
+}
@@ -4,6 +4,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,8 +12,12 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+
 @ExtendWith(MockitoExtension.class)
 class EurekaClientServiceTest {
 
@@ -22,12 +27,13 @@ class EurekaClientServiceTest {
     @Mock
     private ServiceInstance instance;
 
-    @InjectMocks
     private EurekaClientService service;
 
     @BeforeEach
     void setup() {
-        service.eurekaServerUrl = "http://localhost:8761/eureka/apps/";
+        service = new EurekaClientService(restClient,
+                TestData.peerPool(restClient, "http://localhost:8761/eureka/apps/", new SimpleMeterRegistry()),
+                new EurekaCallMetrics(new SimpleMeterRegistry(), new long[]{100, 1000}, false, 0));
     }
 
     @Test
@@ -38,7 +44,7 @@ class EurekaClientServiceTest {
                 .uri(anyString())
                 .contentType(any())
                 .accept(any(MediaType.class))
-                .body(anyString())
+                .body(any(byte[].class))
                 .retrieve()
                 .onStatus(any(), any())
                 .toBodilessEntity())
@@ -59,7 +65,7 @@ class EurekaClientServiceTest {
                 .uri(anyString())
                 .contentType(any())
                 .accept(any(MediaType.class))
-                .body(anyString())
+                .body(any(byte[].class))
                 .retrieve()
                 .onStatus(any(), any())
                 .toBodilessEntity())
@@ -109,6 +115,28 @@ class EurekaClientServiceTest {
         assertTrue(result);
     }
 
+    @Test
+    void changeStatus_outOfService_putsOverride() {
+        // GIVEN
+        when(instance.getServiceName()).thenReturn("TEST");
+        when(instance.getHostName()).thenReturn("host");
+        when(instance.isSslPreferred()).thenReturn(false);
+        when(instance.getHttpPort()).thenReturn(8080);
+        when(restClient.put()
+                .uri(anyString())
+                .retrieve()
+                .toBodilessEntity())
+                .thenReturn(ResponseEntity.ok().build());
+
+        // WHEN
+        EurekaCallResult result = service.changeStatus(instance, "OUT_OF_SERVICE");
+
+        // THEN
+        assertEquals(EurekaCallResult.OK, result);
+        verify(restClient.put()).uri(endsWith("/status?value=OUT_OF_SERVICE"));
+        verify(restClient, never()).delete();
+    }
+
     @Test
     void sendHeartbeat_notFound_throwsException() {
         // GIVEN
@@ -126,6 +154,137 @@ class EurekaClientServiceTest {
         assertThrows(HttpClientErrorException.NotFound.class, () -> service.sendHeartbeat(instance));
     }
 
+    @Test
+    void sendHeartbeatAsync_notFound_completesWithNotFound() {
+        // GIVEN
+        when(instance.getServiceName()).thenReturn("TEST");
+        when(instance.getHostName()).thenReturn("host");
+        when(instance.isSslPreferred()).thenReturn(false);
+        when(instance.getHttpPort()).thenReturn(8080);
+        when(restClient.put()
+                .uri(anyString())
+                .retrieve()
+                .toBodilessEntity())
+                .thenThrow(HttpClientErrorException.NotFound.class);
+
+        // WHEN
+        EurekaCallResult result = service.sendHeartbeatAsync(instance).join();
+
+        // THEN
+        assertEquals(EurekaCallResult.NOT_FOUND, result);
+    }
+
+    @Test
+    void registerInstanceAsync_badRequest_isFatal() {
+        // GIVEN
+        mockInstanceForRegister();
+        when(restClient.post()
+                .uri(anyString())
+                .contentType(any())
+                .accept(any(MediaType.class))
+                .body(any(byte[].class))
+                .retrieve()
+                .onStatus(any(), any())
+                .toBodilessEntity())
+                .thenReturn(ResponseEntity.badRequest().build());
+
+        // WHEN
+        EurekaCallResult result = service.registerInstanceAsync(instance).join();
+
+        // THEN
+        assertEquals(EurekaCallResult.FATAL, result);
+    }
+
+    @Test
+    void buildXmlPayload_escapesValues() {
+        // GIVEN
+        ServiceInstance real = TestData.instance().setHostName("a&b<c>");
+
+        // WHEN
+        String xml = new String(service.buildXmlPayload(real), StandardCharsets.UTF_8);
+
+        // THEN
+        assertTrue(xml.contains("<hostName>a&amp;b&lt;c&gt;</hostName>"));
+        assertTrue(xml.contains("<instanceId>a&amp;b&lt;c&gt;:TEST-SERVICE:8080</instanceId>"));
+        assertTrue(xml.contains("<homePageUrl>http://a&amp;b&lt;c&gt;:8080/</homePageUrl>"));
+        assertTrue(xml.contains("<port enabled=\"true\">8080</port>"));
+    }
+
+    @Test
+    void descriptor_cachedUntilInvalidated() {
+        // GIVEN
+        ServiceInstance real = TestData.instance();
+        InstanceDescriptor first = service.descriptor(real);
+
+        // WHEN
+        real.setHostName("other-host");
+        InstanceDescriptor cached = service.descriptor(real);
+        service.invalidateDescriptor(real);
+        InstanceDescriptor rebuilt = service.descriptor(real);
+
+        // THEN
+        assertSame(first, cached);
+        assertEquals("TEST-SERVICE/other-host:TEST-SERVICE:8080", rebuilt.instancePath());
+    }
+
+    @Test
+    void sendHeartbeat_firstPeerDown_failsOverToNextPeer() {
+        // GIVEN
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new EurekaClientService(restClient,
+                TestData.peerPool(restClient, "http://peer-a:8761/eureka/apps/, http://peer-b:8761/eureka/apps/", meterRegistry),
+                new EurekaCallMetrics(meterRegistry, new long[]{100, 1000}, false, 0));
+        ServiceInstance real = TestData.instance();
+        when(restClient.put()
+                .uri("http://peer-a:8761/eureka/apps/TEST-SERVICE/localhost:TEST-SERVICE:8080")
+                .retrieve()
+                .toBodilessEntity())
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        when(restClient.put()
+                .uri("http://peer-b:8761/eureka/apps/TEST-SERVICE/localhost:TEST-SERVICE:8080")
+                .retrieve()
+                .toBodilessEntity())
+                .thenReturn(ResponseEntity.ok().build());
+
+        // WHEN
+        boolean result = service.sendHeartbeat(real);
+
+        // THEN
+        assertTrue(result);
+        assertEquals(1.0, meterRegistry.counter("eureka_peer_failovers_total").count());
+        assertEquals(1.0, meterRegistry.counter("eureka_peer_selections_total", "peer", "peer-b:8761").count());
+        assertEquals(1, meterRegistry.get("eureka_call_duration")
+                .tags("operation", "heartbeat", "outcome", "retryable_error", "host", "peer-a:8761").timer().count());
+        assertEquals(1, meterRegistry.get("eureka_call_duration")
+                .tags("operation", "heartbeat", "outcome", "ok", "host", "peer-b:8761").timer().count());
+    }
+
+    @Test
+    void fetchRegistry_emptyBody_countsAsFailedFetch() {
+        // GIVEN
+        when(restClient.get()
+                .uri(anyString())
+                .accept(any(MediaType.class))
+                .retrieve()
+                .body(byte[].class))
+                .thenReturn(new byte[0]);
+
+        // WHEN
+        RegistryCache.Fetch fetch = service.fetchRegistry(true);
+
+        // THEN
+        assertNull(fetch);
+    }
+
+    @Test
+    void stop_shutsDownAsyncExecutor() {
+        // WHEN
+        service.stop();
+
+        // THEN
+        assertThrows(RejectedExecutionException.class, () -> service.sendHeartbeatAsync(instance));
+    }
+
     private void mockInstanceForRegister() {
         when(instance.getServiceName()).thenReturn("TEST");
         when(instance.getHostName()).thenReturn("host");
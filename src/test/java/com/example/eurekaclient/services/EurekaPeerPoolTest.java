@@ -0,0 +1,60 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EurekaPeerPoolTest {
+
+    private final RestClient restClient = mock(RestClient.class, Answers.RETURNS_DEEP_STUBS);
+    private final EurekaPeerPool pool = TestData.peerPool(restClient,
+            "http://a:8761/eureka/apps/,http://b:8761/eureka/apps", new SimpleMeterRegistry());
+
+    @Test
+    void candidates_preferLowerLatency() {
+        EurekaPeer a = pool.peers().get(0);
+        EurekaPeer b = pool.peers().get(1);
+
+        pool.record(a, true, TimeUnit.MILLISECONDS.toNanos(200));
+        pool.record(b, true, TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertEquals(List.of(b, a), pool.candidates());
+        assertEquals("http://b:8761/eureka/apps/", b.baseUrl());
+    }
+
+    @Test
+    void candidates_skipUnhealthyPeer() {
+        EurekaPeer a = pool.peers().get(0);
+        EurekaPeer b = pool.peers().get(1);
+
+        for (int i = 0; i < 3; i++) {
+            pool.record(a, false, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertFalse(a.isHealthy());
+        assertEquals(List.of(b), pool.candidates());
+    }
+
+    @Test
+    void probeUnhealthy_reachablePeer_isRestored() {
+        EurekaPeer a = pool.peers().get(0);
+        for (int i = 0; i < 3; i++) {
+            pool.record(a, false, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        when(restClient.get().uri("http://a:8761/eureka/apps/delta").retrieve().toBodilessEntity())
+                .thenReturn(ResponseEntity.ok().build());
+
+        pool.probeUnhealthy();
+
+        assertTrue(a.isHealthy());
+        assertEquals(2, pool.candidates().size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel(10, TimeUnit.MILLISECONDS, 64, Runnable::run, r -> {
+        Thread t = new Thread(r, "test-wheel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void schedule_firesOnce() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        wheel.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void scheduleAtFixedRate_firesRepeatedlyUntilCancelled() throws Exception {
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicInteger runs = new AtomicInteger();
+
+        HashedTimingWheel.Timeout timeout = wheel.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        }, 0, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        timeout.cancel();
+        int afterCancel = runs.get();
+        Thread.sleep(150);
+
+        assertTrue(timeout.isCancelled());
+        assertTrue(runs.get() <= afterCancel + 1);
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void cancel_beforeExpiry_neverFires() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        HashedTimingWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+        Thread.sleep(250);
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void phaseDelay_isWithinPeriodAndStablePerKey() {
+        long first = wheel.phaseDelay("host:SERVICE:8080", 20_000, TimeUnit.MILLISECONDS);
+        long other = wheel.phaseDelay("other-host:SERVICE:8080", 20_000, TimeUnit.MILLISECONDS);
+        long again = wheel.phaseDelay("host:SERVICE:8080", 20_000, TimeUnit.MILLISECONDS);
+
+        assertTrue(first >= 0 && first < 20_000);
+        assertTrue(other >= 0 && other < 20_000);
+        // Gleicher Schlüssel -> gleiche Phase, nur die inzwischen vergangene Zeit fehlt
+        assertTrue(Math.floorMod(first - again, 20_000) < 1_000);
+    }
+
+    @Test
+    void withoutWorker_advanceFiresDueTimeouts() {
+        HashedTimingWheel manual = HashedTimingWheel.withoutWorker(10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+        AtomicInteger runs = new AtomicInteger();
+        manual.schedule(runs::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+        HashedTimingWheel.Timeout cancelled = manual.schedule(runs::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+        cancelled.cancel();
+
+        manual.advance();
+
+        assertEquals(1, runs.get());
+        assertEquals(0, manual.pendingTimeouts());
+        assertThrows(IllegalStateException.class, wheel::advance);
+    }
+}
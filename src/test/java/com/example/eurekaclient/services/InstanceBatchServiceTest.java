@@ -0,0 +1,172 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InstanceBatchServiceTest {
+
+    private final LifecycleManager lifecycleManager = mock(LifecycleManager.class);
+    private final ServiceInstanceStore store = new ServiceInstanceStore();
+
+    private IncrementalRefreshService refreshService;
+    private InstanceBatchService batchService;
+    private ServiceInstance existing;
+    private ServiceInstance obsolete;
+
+    @BeforeEach
+    void setup() {
+        refreshService = new IncrementalRefreshService(store, lifecycleManager);
+        batchService = new InstanceBatchService(store, lifecycleManager, refreshService);
+        ReflectionTestUtils.setField(batchService, "parallelism", 32);
+        existing = TestData.instance();
+        obsolete = TestData.instance().setId(2L).setServiceName("OLD-SERVICE");
+        store.saveAll(List.of(existing, obsolete));
+        when(lifecycleManager.isRunning(any())).thenReturn(true);
+    }
+
+    private static InstanceBatchItem item(InstanceBatchItem.Action action, String serviceName) {
+        return InstanceBatchItem.builder()
+                .action(action)
+                .serviceName(serviceName)
+                .hostName("batch-host")
+                .ipAddr("10.0.0.7")
+                .httpPort(8080)
+                .securePort(8443)
+                .dataCenterInfoName("MyDC")
+                .status("UP")
+                .build();
+    }
+
+    @Test
+    void apply_createUpdateDelete_writesStoreAndRunsLifecycles() {
+        InstanceBatchResponse response = batchService.apply(new InstanceBatchRequest().setItems(List.of(
+                item(InstanceBatchItem.Action.CREATE, "NEW-SERVICE"),
+                item(InstanceBatchItem.Action.UPDATE, "test-service"),
+                item(InstanceBatchItem.Action.DELETE, "OLD-SERVICE"))));
+
+        assertTrue(response.applied());
+        assertEquals(3, response.succeeded());
+        assertEquals(List.of("REGISTERED", "REGISTERED", "DEREGISTERED"),
+                response.results().stream().map(InstanceBatchResponse.ItemResult::outcome).toList());
+
+        assertEquals(2, store.size());
+        assertNull(store.findByServiceName("OLD-SERVICE"));
+        ServiceInstance updated = store.findByServiceName("TEST-SERVICE");
+        assertNotSame(existing, updated);
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals("batch-host", updated.getHostName());
+        assertNotEquals("batch-host", existing.getHostName());
+        ServiceInstance created = store.findByServiceName("NEW-SERVICE");
+        assertNotNull(created.getId());
+
+        verify(lifecycleManager).stopLifecycle(existing);
+        verify(lifecycleManager).stopLifecycle(obsolete);
+        verify(lifecycleManager).startLifecycle(updated);
+        verify(lifecycleManager).startLifecycle(created);
+    }
+
+    @Test
+    void apply_invalidItem_rejectsWholeBatch() {
+        InstanceBatchResponse response = batchService.apply(new InstanceBatchRequest().setItems(List.of(
+                item(InstanceBatchItem.Action.DELETE, "OLD-SERVICE"),
+                item(InstanceBatchItem.Action.CREATE, "TEST-SERVICE"),
+                item(InstanceBatchItem.Action.UPDATE, "UNKNOWN-SERVICE"),
+                item(InstanceBatchItem.Action.DELETE, "old-service"))));
+
+        assertFalse(response.applied());
+        assertEquals(List.of("SKIPPED", "INVALID", "INVALID", "INVALID"),
+                response.results().stream().map(InstanceBatchResponse.ItemResult::outcome).toList());
+        assertEquals("serviceName mehrfach im Batch", response.results().get(3).message());
+        assertEquals(2, store.size());
+        verifyNoInteractions(lifecycleManager);
+    }
+
+    @Test
+    void apply_unchangedUpdate_keepsLifecycle() {
+        InstanceBatchItem unchanged = item(InstanceBatchItem.Action.UPDATE, "TEST-SERVICE")
+                .setHostName(existing.getHostName())
+                .setIpAddr(existing.getIpAddr())
+                .setHttpPort(existing.getHttpPort());
+
+        InstanceBatchResponse response = batchService.apply(new InstanceBatchRequest().setItems(List.of(unchanged)));
+
+        assertEquals("UNCHANGED", response.results().getFirst().outcome());
+        verify(lifecycleManager, never()).stopLifecycle(any());
+        verify(lifecycleManager, never()).startLifecycle(any());
+    }
+
+    @Test
+    void apply_waitsForRunningRefresh() throws Exception {
+        CompletableFuture<InstanceBatchResponse> batch = refreshService.exclusive(() -> {
+            CompletableFuture<InstanceBatchResponse> pending = CompletableFuture.supplyAsync(() -> batchService.apply(
+                    new InstanceBatchRequest().setItems(List.of(item(InstanceBatchItem.Action.CREATE, "NEW-SERVICE")))));
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(pending.isDone());
+            return pending;
+        });
+
+        assertTrue(batch.get(5, TimeUnit.SECONDS).applied());
+        assertNotNull(store.findByServiceName("NEW-SERVICE"));
+    }
+
+    @Test
+    void apply_registersOutsideRefreshLock() {
+        doAnswer(invocation -> CompletableFuture.supplyAsync(() -> refreshService.exclusive(() -> true))
+                .get(1, TimeUnit.SECONDS)).when(lifecycleManager).startLifecycle(any());
+
+        InstanceBatchResponse response = batchService.apply(new InstanceBatchRequest().setItems(List.of(
+                item(InstanceBatchItem.Action.CREATE, "NEW-SERVICE"))));
+
+        assertEquals("REGISTERED", response.results().getFirst().outcome());
+    }
+
+    @Test
+    void apply_instanceReplacedMeanwhile_skipsStart() {
+        doAnswer(invocation -> store.remove(store.findByServiceName("TEST-SERVICE")))
+                .when(lifecycleManager).stopLifecycle(existing);
+
+        InstanceBatchResponse response = batchService.apply(new InstanceBatchRequest().setItems(List.of(
+                item(InstanceBatchItem.Action.UPDATE, "TEST-SERVICE"))));
+
+        assertEquals("FAILED", response.results().getFirst().outcome());
+        verify(lifecycleManager, never()).startLifecycle(any());
+    }
+
+    @Test
+    void apply_registrationsLimitedByParallelism() {
+        ReflectionTestUtils.setField(batchService, "parallelism", 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        }).when(lifecycleManager).startLifecycle(any());
+
+        List<InstanceBatchItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(item(InstanceBatchItem.Action.CREATE, "BATCH-" + i));
+        }
+        InstanceBatchResponse response = batchService.apply(new InstanceBatchRequest().setItems(items));
+
+        assertEquals(10, response.succeeded());
+        assertEquals(2, maxRunning.get());
+        assertTrue(response.results().stream().allMatch(r -> r.latencyMs() >= 20));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InstanceOperationServiceTest {
+
+    private final LifecycleManager lifecycleManager = mock(LifecycleManager.class);
+    private final ServiceInstanceStore store = new ServiceInstanceStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IncrementalRefreshService refreshService;
+    private InstanceOperationService operationService;
+
+    @BeforeEach
+    void setup() {
+        store.save(TestData.instance());
+        refreshService = new IncrementalRefreshService(store, lifecycleManager);
+        operationService = new InstanceOperationService(store, lifecycleManager, refreshService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        operationService.stop();
+    }
+
+    private void start(int workers, int queueCapacity) {
+        ReflectionTestUtils.setField(operationService, "workers", workers);
+        ReflectionTestUtils.setField(operationService, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(operationService, "retentionSeconds", 600L);
+        operationService.init();
+    }
+
+    private OperationStatus awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OperationStatus status = operationService.find(id);
+        while (status.state().equals("QUEUED") || status.state().equals("RUNNING")) {
+            assertTrue(System.nanoTime() < deadline, "Operation nicht beendet: " + status);
+            TimeUnit.MILLISECONDS.sleep(5);
+            status = operationService.find(id);
+        }
+        return status;
+    }
+
+    @Test
+    void submitUpdate_runsOffCallerThreadAndReportsResult() throws Exception {
+        start(2, 10);
+
+        OperationStatus accepted = operationService.submitUpdate(TestData.updateRequest());
+        assertEquals("UPDATE", accepted.type());
+        assertEquals("TEST-SERVICE", accepted.serviceName());
+        OperationStatus done = awaitFinished(accepted.id());
+        assertEquals("SUCCEEDED", done.state());
+        assertTrue(done.finishedAtMillis() >= done.startedAtMillis());
+        assertTrue(done.startedAtMillis() >= done.submittedAtMillis());
+        verify(lifecycleManager).startLifecycle(any());
+        assertEquals(1.0, meterRegistry.get("eureka_operations_total").tag("result", "accepted").counter().count());
+        assertEquals(1, meterRegistry.get("eureka_operation_duration").tag("phase", "running").timer().count());
+    }
+
+    @Test
+    void submitUpdate_failureIsReportedOnOperation() throws Exception {
+        start(1, 10);
+        doThrow(new IllegalStateException("Eureka nicht erreichbar")).when(lifecycleManager).startLifecycle(any());
+
+        OperationStatus done = awaitFinished(operationService.submitUpdate(TestData.updateRequest()).id());
+
+        assertEquals("FAILED", done.state());
+        assertEquals("Eureka nicht erreichbar", done.message());
+    }
+
+    @Test
+    void submitUpdate_unknownService_returnsNull() {
+        start(1, 10);
+
+        assertNull(operationService.submitUpdate(TestData.updateRequest().setServiceName("UNKNOWN-SERVICE")));
+        assertNull(operationService.find("unknown"));
+        verifyNoInteractions(lifecycleManager);
+    }
+
+    @Test
+    void submitUpdate_queueFull_rejectsAndCounts() throws Exception {
+        start(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return null;
+        }).when(lifecycleManager).startLifecycle(any());
+
+        OperationStatus first = operationService.submitUpdate(TestData.updateRequest());
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        OperationStatus queued = operationService.submitUpdate(TestData.updateRequest());
+
+        assertThrows(RejectedExecutionException.class, () -> operationService.submitUpdate(TestData.updateRequest()));
+        assertEquals("RUNNING", operationService.find(first.id()).state());
+        assertEquals("QUEUED", operationService.find(queued.id()).state());
+        assertEquals(1.0, meterRegistry.get("eureka_operations_total").tag("result", "rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("eureka_operations_queued").gauge().value());
+
+        release.countDown();
+        assertEquals("SUCCEEDED", awaitFinished(queued.id()).state());
+    }
+
+    @Test
+    void update_savesNewInstanceWithSameId() {
+        ServiceInstance existing = store.findByServiceName("TEST-SERVICE");
+
+        ServiceInstance updated = operationService.update(TestData.updateRequest());
+
+        assertNotSame(existing, updated);
+        assertSame(updated, store.findByServiceName("TEST-SERVICE"));
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals("new-host", updated.getHostName());
+        assertEquals(8081, updated.getHttpPort());
+        assertNotEquals("new-host", existing.getHostName());
+
+        var order = inOrder(lifecycleManager);
+        order.verify(lifecycleManager).stopLifecycle(existing);
+        order.verify(lifecycleManager).startLifecycle(updated);
+    }
+
+    @Test
+    void update_waitsForRunningRefresh() throws Exception {
+        CompletableFuture<ServiceInstance> update = refreshService.exclusive(() -> {
+            CompletableFuture<ServiceInstance> pending =
+                    CompletableFuture.supplyAsync(() -> operationService.update(TestData.updateRequest()));
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(pending.isDone());
+            return pending;
+        });
+
+        assertEquals("new-host", update.get(5, TimeUnit.SECONDS).getHostName());
+    }
+}
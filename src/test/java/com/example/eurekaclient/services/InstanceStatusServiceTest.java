@@ -0,0 +1,55 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InstanceStatusServiceTest {
+
+    private final LifecycleManager lifecycleManager = mock(LifecycleManager.class);
+    private final EurekaClientService eurekaClientService = mock(EurekaClientService.class);
+    private final ServiceInstanceStore store = new ServiceInstanceStore();
+    private final LifecycleJournal journal = new LifecycleJournal(64, "");
+
+    private InstanceStatusService statusService;
+
+    @BeforeEach
+    void setup() {
+        statusService = new InstanceStatusService(store, lifecycleManager, eurekaClientService, journal);
+        ReflectionTestUtils.setField(statusService, "parallelism", 32);
+        when(eurekaClientService.generateInstanceId(any())).thenAnswer(invocation ->
+                "localhost:" + invocation.<ServiceInstance>getArgument(0).getServiceName() + ":8080");
+    }
+
+    @Test
+    void changeStatus_patternAndNames_setsOverrideWithoutTouchingLifecycle() {
+        ServiceInstance instance = TestData.instance();
+        ServiceInstance other = TestData.instance().setId(2L).setServiceName("TEST-OTHER");
+        ServiceInstance stopped = TestData.instance().setId(3L).setServiceName("TEST-STOPPED");
+        store.saveAll(List.of(instance, other, stopped));
+        when(lifecycleManager.isRunning(any())).thenAnswer(invocation -> invocation.getArgument(0) != stopped);
+        when(eurekaClientService.changeStatus(any(), eq("OUT_OF_SERVICE"))).thenAnswer(invocation ->
+                invocation.getArgument(0) == other ? EurekaCallResult.RETRYABLE_ERROR : EurekaCallResult.OK);
+
+        BulkStatusResponse response = statusService.changeStatus(new BulkStatusRequest()
+                .setServiceNamePattern("test-*")
+                .setServiceNames(List.of("TEST-SERVICE", "UNKNOWN-SERVICE"))
+                .setStatus("out_of_service"));
+
+        assertEquals("OUT_OF_SERVICE", response.status());
+        assertEquals(1, response.succeeded());
+        assertEquals(3, response.failed());
+        assertEquals(List.of("OK", "RETRYABLE_ERROR", "UNKNOWN_SERVICE", "NOT_RUNNING"),
+                response.results().stream().map(BulkStatusResponse.InstanceResult::outcome).toList());
+        verify(eurekaClientService, never()).changeStatus(eq(stopped), any());
+        verify(lifecycleManager, never()).stopLifecycle(any());
+        verify(lifecycleManager, never()).startLifecycle(any());
+        assertEquals(LifecycleJournal.Type.STATUS_CHANGED, journal.forInstance(instance.getId(), 1).getFirst().type());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryDiffTest {
+
+    @Test
+    void compute_categorizesByServiceName() {
+        ServiceInstance unchanged = TestData.instance().setId(1L).setServiceName("UNCHANGED");
+        ServiceInstance changed = TestData.instance().setId(2L).setServiceName("CHANGED");
+        ServiceInstance removed = TestData.instance().setId(3L).setServiceName("REMOVED");
+
+        List<ServiceInstance> desired = List.of(
+                TestData.instance().setId(null).setServiceName("UNCHANGED"),
+                TestData.instance().setId(null).setServiceName("CHANGED").setHttpPort(9090),
+                TestData.instance().setId(null).setServiceName("ADDED"));
+
+        InventoryDiff diff = InventoryDiff.compute(List.of(unchanged, changed, removed), desired);
+
+        assertEquals(List.of(unchanged), diff.unchanged());
+        assertEquals(List.of(removed), diff.removed());
+        assertEquals(1, diff.changed().size());
+        assertSame(changed, diff.changed().get(0).existing());
+        assertEquals(9090, diff.changed().get(0).desired().getHttpPort());
+        assertEquals(1, diff.added().size());
+        assertEquals("ADDED", diff.added().get(0).getServiceName());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    void compute_identicalInventory_isEmpty() {
+        ServiceInstance current = TestData.instance();
+
+        InventoryDiff diff = InventoryDiff.compute(List.of(current), List.of(TestData.instance().setId(null)));
+
+        assertTrue(diff.isEmpty());
+        assertEquals(1, diff.unchanged().size());
+    }
+}
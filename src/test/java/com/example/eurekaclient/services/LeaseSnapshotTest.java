@@ -0,0 +1,61 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaseSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void write_thenRestore_offersValidLeasesOnce() {
+        String file = dir.resolve("leases.bin").toString();
+        long now = System.currentTimeMillis();
+        new LeaseSnapshot(true, file, 90).write(List.of(
+                new LeaseSnapshot.Lease("host-a:A:8080", 11, now),
+                new LeaseSnapshot.Lease("host-b:B:8080", 22, now - 120_000)));
+
+        LeaseSnapshot restored = new LeaseSnapshot(true, file, 90);
+
+        assertNotNull(restored.take("host-a:A:8080", 11));
+        assertNull(restored.take("host-a:A:8080", 11));
+        assertNull(restored.take("host-b:B:8080", 22), "abgelaufene Lease");
+    }
+
+    @Test
+    void take_changedPayload_returnsNull() {
+        String file = dir.resolve("leases.bin").toString();
+        new LeaseSnapshot(true, file, 90).write(List.of(
+                new LeaseSnapshot.Lease("host-a:A:8080", 11, System.currentTimeMillis())));
+
+        assertNull(new LeaseSnapshot(true, file, 90).take("host-a:A:8080", 12));
+    }
+
+    @Test
+    void writeAfterFinal_keepsFinalSnapshot() {
+        String file = dir.resolve("leases.bin").toString();
+        LeaseSnapshot snapshot = new LeaseSnapshot(true, file, 90);
+        snapshot.writeFinal(List.of(new LeaseSnapshot.Lease("host-a:A:8080", 11, System.currentTimeMillis())));
+
+        snapshot.write(List.of());
+
+        assertNotNull(new LeaseSnapshot(true, file, 90).take("host-a:A:8080", 11));
+    }
+
+    @Test
+    void corruptFile_startsCold() throws Exception {
+        Path file = dir.resolve("leases.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+
+        LeaseSnapshot restored = new LeaseSnapshot(true, file.toString(), 90);
+
+        assertNull(restored.take("host-a:A:8080", 11));
+    }
+}
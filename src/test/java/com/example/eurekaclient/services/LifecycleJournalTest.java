@@ -0,0 +1,60 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LifecycleJournalTest {
+
+    @Test
+    void recent_returnsNewestFirstAndOverwritesOldest() {
+        LifecycleJournal journal = new LifecycleJournal(4, "");
+
+        for (int i = 0; i < 6; i++) {
+            journal.record(i, LifecycleJournal.Type.HEARTBEAT, 0);
+        }
+
+        List<LifecycleJournal.Event> events = journal.recent(10);
+        assertEquals(4, events.size());
+        assertEquals(5, events.getFirst().instanceId());
+        assertEquals(2, events.getLast().instanceId());
+        assertEquals(6, journal.total(LifecycleJournal.Type.HEARTBEAT));
+    }
+
+    @Test
+    void forInstance_filtersAndLimits() {
+        LifecycleJournal journal = new LifecycleJournal(16, "");
+        journal.record(1, LifecycleJournal.Type.REGISTERED, 0);
+        journal.record(2, LifecycleJournal.Type.REGISTERED, 0);
+        journal.record(1, LifecycleJournal.Type.HEARTBEAT_FAILED, 0);
+        journal.record(1, LifecycleJournal.Type.RETRY_SCHEDULED, 1500);
+
+        List<LifecycleJournal.Event> events = journal.forInstance(1, 2);
+
+        assertEquals(2, events.size());
+        assertEquals(LifecycleJournal.Type.RETRY_SCHEDULED, events.get(0).type());
+        assertEquals(1500, events.get(0).detail());
+        assertEquals(LifecycleJournal.Type.HEARTBEAT_FAILED, events.get(1).type());
+    }
+
+    @Test
+    void spill_isReadableAfterStop(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("journal.bin");
+        LifecycleJournal journal = new LifecycleJournal(4, file.toString());
+        for (int i = 0; i < 5; i++) {
+            journal.record(7, LifecycleJournal.Type.HEARTBEAT, i);
+        }
+        journal.stop();
+
+        List<LifecycleJournal.Event> events = LifecycleJournal.readSpill(file);
+
+        assertEquals(4, events.size());
+        assertEquals(1, events.getFirst().detail());
+        assertEquals(4, events.getLast().detail());
+        assertEquals(7, events.getLast().instanceId());
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.eurekaclient.services;
+
+import com.example.eurekaclient.stub.StubEurekaServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.JettyClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lasttest des echten {@link LifecycleManager} gegen den {@link StubEurekaServer}.
+ * <p>
+ * Läuft nur mit {@code mvn -Pload test}. Phasen: Registrierung aller Instanzen, ein Intervall Einschwingen,
+ * Messung im Dauerbetrieb, kompletter Ausfall des Stubs und Erholung. Ergebnisse landen im Log und als JSON
+ * unter {@code target/load/}. CPU und Heap enthalten den Stub, der im selben Prozess läuft.
+ * <p>
+ * Einstellbar über System-Properties, z. B. {@code -Dload.sizes=10000 -Dload.latency=EXPONENTIAL:20
+ * -Dload.error-rate=0.01 -Dload.not-found-rate=0.001}.
+ */
+@Tag("load")
+class LifecycleLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LifecycleLoadTest.class);
+
+    private final long heartbeatSeconds = Long.getLong("load.heartbeat-seconds", 20);
+    private final long steadySeconds = Long.getLong("load.steady-seconds", 3 * heartbeatSeconds);
+    private final long outageSeconds = Long.getLong("load.outage-seconds", 30);
+    private final long recoveryTimeoutSeconds = Long.getLong("load.recovery-timeout-seconds", 300);
+    private final int startupConcurrency = Integer.getInteger("load.startup-concurrency", 256);
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    static List<Integer> sizes() {
+        return Arrays.stream(System.getProperty("load.sizes", "1000,10000,50000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+    }
+
+    @ParameterizedTest(name = "{0} Instanzen")
+    @MethodSource("sizes")
+    void sustainedHeartbeatsAndRecovery(int size) throws Exception {
+        try (StubEurekaServer stub = StubEurekaServer.start(0, heartbeatSeconds, TimeUnit.SECONDS)) {
+            configureFaults(stub);
+
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            HttpClient httpClient = new HttpClient();
+            httpClient.setMaxConnectionsPerDestination(Integer.getInteger("load.connections", 256));
+            httpClient.setMaxRequestsQueuedPerDestination(Math.max(1024, size));
+            httpClient.start();
+            LifecycleScheduler scheduler = new LifecycleScheduler("virtual", 4, 2000, "wheel", 100, 512, meterRegistry);
+            LifecycleManager manager = lifecycleManager(stub, httpClient, scheduler, meterRegistry);
+
+            List<ServiceInstance> instances = IntStream.range(0, size).mapToObj(LifecycleLoadTest::instance).toList();
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("instances", size);
+            report.put("heartbeatIntervalSeconds", heartbeatSeconds);
+
+            try {
+                long registrationMillis = startAll(manager, instances);
+                report.put("registrationMillis", registrationMillis);
+                awaitLeases(stub, size);
+
+                // Einschwingen: jede Instanz hat ihre Phase im Timing Wheel erreicht
+                TimeUnit.SECONDS.sleep(heartbeatSeconds);
+                report.putAll(measureSteadyState(stub));
+
+                report.put("recoveryMillis", outageAndRecovery(stub, size));
+            } finally {
+                manager.stopAll(instances);
+                httpClient.stop();
+            }
+
+            report.put("deregistrations", stub.deregistrations());
+            report.put("injectedErrors", stub.injectedErrors());
+            report.put("injectedNotFound", stub.injectedNotFound());
+            writeReport(size, report);
+        }
+    }
+
+    private void configureFaults(StubEurekaServer stub) {
+        String[] latency = System.getProperty("load.latency", "FIXED:5").split(":");
+        stub.latency(StubEurekaServer.Latency.valueOf(latency[0].trim().toUpperCase()), Long.parseLong(latency[1].trim()))
+                .errorRate(Double.parseDouble(System.getProperty("load.error-rate", "0")))
+                .notFoundRate(Double.parseDouble(System.getProperty("load.not-found-rate", "0")));
+    }
+
+    private LifecycleManager lifecycleManager(StubEurekaServer stub, HttpClient httpClient,
+                                              LifecycleScheduler scheduler, SimpleMeterRegistry meterRegistry) {
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new JettyClientHttpRequestFactory(httpClient))
+                .build();
+        EurekaClientService service = new EurekaClientService(restClient,
+                TestData.peerPool(restClient, stub.baseUrl(), meterRegistry),
+                new EurekaCallMetrics(meterRegistry, new long[]{50, 100, 250, 1000}, false, 0));
+        LifecycleManager manager = new LifecycleManager(service, meterRegistry, new ServiceInstanceStore(), scheduler,
+                new DecorrelatedJitterBackoff(1000, 30000), new RetryBudget(0.2, 10, 10, meterRegistry),
+                new LifecycleJournal(65536, ""), new LeaseSnapshot(false, "", 90), 100_000);
+        ReflectionTestUtils.setField(manager, "maxRegisterRetries", 5);
+        ReflectionTestUtils.setField(manager, "maxHeartbeatRetries", 50);
+        ReflectionTestUtils.setField(manager, "heartbeatIntervalSeconds", heartbeatSeconds);
+        ReflectionTestUtils.setField(manager, "stopAwaitMs", 10_000L);
+        ReflectionTestUtils.setField(manager, "shutdownParallelism", 32);
+        ReflectionTestUtils.setField(manager, "shutdownDeadlineMs", 25_000L);
+        ReflectionTestUtils.setField(manager, "backlogDrainIntervalMs", 1000L);
+        ReflectionTestUtils.setField(manager, "backlogDrainBatch", 1000);
+        manager.startBacklogDrain();
+        return manager;
+    }
+
+    private long startAll(LifecycleManager manager, List<ServiceInstance> instances) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(startupConcurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ServiceInstance instance : instances) {
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        manager.startLifecycle(instance);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Bei injizierten Fehlern laufen einzelne Registrierungen noch über Retries.
+     */
+    private void awaitLeases(StubEurekaServer stub, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(recoveryTimeoutSeconds);
+        while (stub.leaseCount() < size) {
+            assertTrue(System.nanoTime() < deadline, "Nur " + stub.leaseCount() + " von " + size + " registriert");
+            TimeUnit.MILLISECONDS.sleep(250);
+        }
+    }
+
+    private Map<String, Object> measureSteadyState(StubEurekaServer stub) throws InterruptedException {
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 1, TimeUnit.SECONDS);
+
+        stub.resetLateness();
+        long heartbeats = stub.heartbeats();
+        long cpu = os.getProcessCpuTime();
+        long start = System.nanoTime();
+
+        TimeUnit.SECONDS.sleep(steadySeconds);
+
+        long elapsed = System.nanoTime() - start;
+        long cpuUsed = os.getProcessCpuTime() - cpu;
+        long sustained = stub.heartbeats() - heartbeats;
+        sampler.shutdownNow();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("heartbeatsPerSecond", sustained * 1_000_000_000L / elapsed);
+        for (ValueAtPercentile percentile : stub.lateness().takeSnapshot().percentileValues()) {
+            String name = Double.toString(Math.round(percentile.percentile() * 1000) / 10.0).replace(".0", "");
+            result.put("latenessP" + name + "Millis", (long) percentile.value());
+        }
+        result.put("latenessMaxMillis", (long) stub.lateness().max());
+        result.put("cpuCores", Math.round(100.0 * cpuUsed / elapsed) / 100.0);
+        result.put("heapPeakMb", peakHeap.get() / (1024 * 1024));
+        return result;
+    }
+
+    /**
+     * Zeit vom Ende des Ausfalls, bis jede Instanz wieder mindestens einen erfolgreichen Heartbeat hatte.
+     */
+    private long outageAndRecovery(StubEurekaServer stub, int size) throws Exception {
+        stub.outage(true);
+        TimeUnit.SECONDS.sleep(outageSeconds);
+        stub.outage(false);
+        long recovered = System.nanoTime();
+
+        long deadline = recovered + TimeUnit.SECONDS.toNanos(recoveryTimeoutSeconds);
+        while (stub.renewedSince(recovered) < size) {
+            assertTrue(System.nanoTime() < deadline,
+                    "Nach " + recoveryTimeoutSeconds + " s erst " + stub.renewedSince(recovered) + " von " + size + " erholt");
+            TimeUnit.MILLISECONDS.sleep(250);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - recovered);
+    }
+
+    private static void writeReport(int size, Map<String, Object> report) throws Exception {
+        log.info("[Load] {}", report);
+        Path dir = Path.of("target", "load");
+        Files.createDirectories(dir);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve("lifecycle-" + size + ".json").toFile(), report);
+    }
+
+    private static ServiceInstance instance(int i) {
+        return ServiceInstance.builder()
+                .id(i + 1L)
+                .serviceName("LOAD-SERVICE-" + (i % 200))
+                .hostName("load-host-" + i)
+                .ipAddr("10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255))
+                .httpPort(8080)
+                .securePort(8443)
+                .sslPreferred(false)
+                .status("UP")
+                .dataCenterInfoName("MyOwn")
+                .build();
+    }
+}
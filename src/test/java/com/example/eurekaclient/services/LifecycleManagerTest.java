@@ -0,0 +1,302 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LifecycleManagerTest {
+
+    private final EurekaClientService eurekaClientService = mock(EurekaClientService.class);
+    private final LifecycleScheduler scheduler = mock(LifecycleScheduler.class);
+    private final ScheduledTask heartbeatTask = mock(ScheduledTask.class);
+    private final ScheduledTask retryTask = mock(ScheduledTask.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LifecycleJournal journal = new LifecycleJournal(64, "");
+    private final ServiceInstanceStore serviceInstanceStore = new ServiceInstanceStore();
+
+    private LifecycleManager lifecycleManager;
+    private ServiceInstance instance;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        lifecycleManager = newLifecycleManager(new LeaseSnapshot(false, tempDir.resolve("leases.bin").toString(), 90));
+
+        instance = TestData.instance();
+        when(eurekaClientService.isAvailable()).thenReturn(true);
+        when(eurekaClientService.generateInstanceId(any())).thenReturn("localhost:TEST-SERVICE:8080");
+        when(eurekaClientService.registerInstance(any())).thenReturn(true);
+        when(scheduler.schedulePeriodic(anyString(), any(), anyLong(), any())).thenReturn(heartbeatTask);
+        when(scheduler.schedule(any(), anyLong(), any())).thenReturn(retryTask);
+    }
+
+    private LifecycleManager newLifecycleManager(LeaseSnapshot leaseSnapshot) {
+        return newLifecycleManager(leaseSnapshot, 100);
+    }
+
+    private LifecycleManager newLifecycleManager(LeaseSnapshot leaseSnapshot, int retryBacklogMax) {
+        LifecycleManager lifecycleManager = new LifecycleManager(eurekaClientService, meterRegistry, serviceInstanceStore,
+                scheduler, new ExponentialBackoff(1000, 60000), new RetryBudget(0.2, 10, 10, meterRegistry),
+                journal, leaseSnapshot, retryBacklogMax);
+        ReflectionTestUtils.setField(lifecycleManager, "maxRegisterRetries", 5);
+        ReflectionTestUtils.setField(lifecycleManager, "maxHeartbeatRetries", 50);
+        ReflectionTestUtils.setField(lifecycleManager, "heartbeatIntervalSeconds", 20L);
+        ReflectionTestUtils.setField(lifecycleManager, "shutdownParallelism", 32);
+        ReflectionTestUtils.setField(lifecycleManager, "shutdownDeadlineMs", 25_000L);
+        return lifecycleManager;
+    }
+
+    private Runnable startAndCaptureHeartbeat() {
+        lifecycleManager.startLifecycle(instance);
+        ArgumentCaptor<Runnable> heartbeat = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedulePeriodic(anyString(), heartbeat.capture(), eq(20L), eq(TimeUnit.SECONDS));
+        return heartbeat.getValue();
+    }
+
+    @Test
+    void failedHeartbeat_periodicTickSkippedWhileRetryPending() {
+        Runnable heartbeat = startAndCaptureHeartbeat();
+        when(eurekaClientService.sendHeartbeat(any())).thenReturn(false);
+
+        heartbeat.run();
+        heartbeat.run();
+        heartbeat.run();
+
+        verify(eurekaClientService, times(1)).sendHeartbeat(instance);
+        verify(scheduler, times(1)).schedule(any(), eq(2000L), eq(TimeUnit.MILLISECONDS));
+        LifecycleManager.LifecycleStats stats = lifecycleManager.getStats();
+        assertEquals(1, stats.queued());
+        assertEquals(1, stats.states().get("BACKOFF"));
+        assertEquals(0, stats.inFlight());
+    }
+
+    @Test
+    void heartbeatRetrySucceeds_returnsToUp() {
+        Runnable heartbeat = startAndCaptureHeartbeat();
+        when(eurekaClientService.sendHeartbeat(any())).thenReturn(false, true);
+        heartbeat.run();
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(retry.capture(), anyLong(), any());
+
+        retry.getValue().run();
+
+        assertEquals(1, lifecycleManager.getStats().states().get("UP"));
+        assertEquals(0, lifecycleManager.getStats().queued());
+    }
+
+    @Test
+    void retryBacklogFull_evictedHeartbeatResumesAndRegistrationsStayParked() {
+        lifecycleManager = newLifecycleManager(new LeaseSnapshot(false, tempDir.resolve("leases.bin").toString(), 90), 1);
+        Runnable heartbeat = startAndCaptureHeartbeat();
+        when(eurekaClientService.isAvailable()).thenReturn(false);
+        when(eurekaClientService.sendHeartbeat(any())).thenReturn(false);
+        when(eurekaClientService.registerInstance(any())).thenReturn(false);
+
+        heartbeat.run();
+        lifecycleManager.startLifecycle(TestData.instance().setId(2L).setServiceName("SECOND-SERVICE"));
+        lifecycleManager.startLifecycle(TestData.instance().setId(3L).setServiceName("THIRD-SERVICE"));
+
+        LifecycleManager.LifecycleStats stats = lifecycleManager.getStats();
+        assertEquals(3, stats.instances());
+        assertEquals(2, stats.parked());
+        assertEquals(1, stats.states().get("UP"));
+        assertEquals(2, stats.states().get("BACKOFF"));
+        assertEquals(LifecycleJournal.Type.SHED, journal.forInstance(instance.getId(), 1).getFirst().type());
+
+        heartbeat.run();
+        verify(eurekaClientService, times(2)).sendHeartbeat(instance);
+        assertEquals(1, lifecycleManager.getStats().states().get("UP"));
+    }
+
+    @Test
+    void retryStartedBeforeHandleStored_notCountedAsQueued() {
+        Runnable heartbeat = startAndCaptureHeartbeat();
+        when(eurekaClientService.sendHeartbeat(any())).thenReturn(false, true);
+        when(scheduler.schedule(any(), anyLong(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return retryTask;
+        });
+
+        heartbeat.run();
+
+        assertEquals(1, lifecycleManager.getStats().states().get("UP"));
+        assertEquals(0, lifecycleManager.getStats().queued());
+    }
+
+    @Test
+    void heartbeatNotFound_reregistersWithoutSecondPeriodicTask() {
+        Runnable heartbeat = startAndCaptureHeartbeat();
+        when(eurekaClientService.sendHeartbeat(any())).thenThrow(
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), new byte[0], null));
+
+        heartbeat.run();
+
+        verify(eurekaClientService, times(2)).registerInstance(instance);
+        verify(scheduler, times(1)).schedulePeriodic(anyString(), any(), anyLong(), any());
+        assertEquals(1, lifecycleManager.getRunningInstances().size());
+    }
+
+    @Test
+    void stopLifecycle_cancelsHeartbeatAndDeregisters() {
+        Runnable heartbeat = startAndCaptureHeartbeat();
+
+        lifecycleManager.stopLifecycle(instance);
+        heartbeat.run();
+
+        verify(heartbeatTask).cancel();
+        verify(eurekaClientService).deregisterInstance(instance);
+        verify(eurekaClientService, never()).sendHeartbeat(any());
+        assertEquals(LifecycleJournal.Type.DEREGISTERED, journal.forInstance(instance.getId(), 1).getFirst().type());
+        assertTrue(lifecycleManager.getRunningInstances().isEmpty());
+        assertEquals(0, lifecycleManager.getStats().instances());
+    }
+
+    @Test
+    void warmRestart_validLease_resumesHeartbeatsWithoutRegistering() {
+        LeaseSnapshot snapshot = warmRestartSnapshot();
+        when(eurekaClientService.sendHeartbeat(any())).thenReturn(true);
+
+        newLifecycleManager(snapshot).startLifecycle(instance);
+
+        verify(eurekaClientService, never()).registerInstance(any());
+        verify(eurekaClientService).sendHeartbeat(instance);
+        verify(scheduler).schedulePeriodic(eq("localhost:TEST-SERVICE:8080"), any(), eq(20L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void warmRestart_leaseUnknownToEureka_fallsBackToRegistration() {
+        LeaseSnapshot snapshot = warmRestartSnapshot();
+        when(eurekaClientService.sendHeartbeat(any())).thenThrow(
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), new byte[0], null));
+
+        LifecycleManager warm = newLifecycleManager(snapshot);
+        warm.startLifecycle(instance);
+
+        verify(eurekaClientService).registerInstance(instance);
+        assertEquals(1, warm.getRunningInstances().size());
+    }
+
+    private LeaseSnapshot warmRestartSnapshot() {
+        byte[] payload = "<instance/>".getBytes(StandardCharsets.UTF_8);
+        when(eurekaClientService.descriptor(any())).thenReturn(new InstanceDescriptor("TEST-SERVICE",
+                "localhost:TEST-SERVICE:8080", "TEST-SERVICE", "TEST-SERVICE/localhost:TEST-SERVICE:8080", payload));
+        String file = tempDir.resolve("leases.bin").toString();
+        new LeaseSnapshot(true, file, 90).write(List.of(new LeaseSnapshot.Lease("localhost:TEST-SERVICE:8080",
+                LeaseSnapshot.fingerprint(payload), System.currentTimeMillis())));
+        return new LeaseSnapshot(true, file, 90);
+    }
+
+    @Test
+    void stopWithinDeadline_slowEureka_reportsRemainingInstances() {
+        ServiceInstance second = TestData.instance().setId(2L).setServiceName("SLOW-SERVICE");
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == second) {
+                Thread.sleep(5_000);
+            }
+            return null;
+        }).when(eurekaClientService).deregisterInstance(any());
+        ReflectionTestUtils.setField(lifecycleManager, "shutdownParallelism", 2);
+        ReflectionTestUtils.setField(lifecycleManager, "shutdownDeadlineMs", 200L);
+
+        long start = System.nanoTime();
+        List<ServiceInstance> remaining = lifecycleManager.stopWithinDeadline(List.of(instance, second));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertEquals(List.of(second), remaining);
+        assertEquals(1.0, meterRegistry.get("eureka_shutdown_remaining").gauge().value());
+        assertEquals(1, meterRegistry.get("eureka_shutdown_duration").timer().count());
+    }
+
+    @Test
+    void stopAllRunning_slowEureka_waitsBeyondShutdownDeadline() {
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(eurekaClientService).deregisterInstance(any());
+        ReflectionTestUtils.setField(lifecycleManager, "shutdownDeadlineMs", 50L);
+        lifecycleManager.startLifecycle(instance);
+
+        lifecycleManager.stopAllRunning();
+
+        verify(eurekaClientService).deregisterInstance(instance);
+        assertTrue(lifecycleManager.getRunningInstances().isEmpty());
+        assertEquals(0.0, meterRegistry.get("eureka_shutdown_remaining").gauge().value());
+    }
+
+    @Test
+    void firstRegistration_measuredOnceFromJvmStart() {
+        assertEquals(0.0, meterRegistry.get("eureka_first_registration").timeGauge().value(TimeUnit.MILLISECONDS));
+
+        lifecycleManager.startLifecycle(instance);
+        long first = lifecycleManager.firstRegistrationMillis();
+        lifecycleManager.startLifecycle(TestData.instance().setId(2L).setServiceName("OTHER-SERVICE"));
+
+        assertTrue(first > 0);
+        assertEquals(first, lifecycleManager.firstRegistrationMillis());
+        assertEquals(first, meterRegistry.get("eureka_first_registration").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void reconcile_missingAndDriftedInstances_reregisteredPaced() throws Exception {
+        ServiceInstance drifted = TestData.instance().setId(2L).setServiceName("DRIFT-SERVICE");
+        ServiceInstance healthy = TestData.instance().setId(3L).setServiceName("OK-SERVICE");
+        when(eurekaClientService.descriptor(any())).thenAnswer(invocation -> {
+            ServiceInstance i = invocation.getArgument(0);
+            String id = "localhost:" + i.getServiceName() + ":8080";
+            return new InstanceDescriptor(i.getServiceName(), id, i.getServiceName(), i.getServiceName() + "/" + id, new byte[0]);
+        });
+        lifecycleManager.startLifecycle(instance);
+        lifecycleManager.startLifecycle(drifted);
+        lifecycleManager.startLifecycle(healthy);
+
+        RegistryCache registry = new RegistryCache();
+        registry.replace(RegistryCache.parse("""
+                {"applications":{"application":[
+                  {"name":"DRIFT-SERVICE","instance":{"instanceId":"localhost:DRIFT-SERVICE:8080","status":"DOWN"}},
+                  {"name":"OK-SERVICE","instance":[{"instanceId":"localhost:OK-SERVICE:8080","status":"UP"}]}]}}
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        LifecycleManager.Drift drift = lifecycleManager.reconcile(registry, System.currentTimeMillis() + 1000, 10);
+
+        assertEquals(new LifecycleManager.Drift(3, 1, 1), drift);
+        ArgumentCaptor<Runnable> reregistration = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(reregistration.capture(), eq(0L), eq(TimeUnit.MILLISECONDS));
+        verify(scheduler).schedule(any(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        assertEquals(1, lifecycleManager.getRunningInstances().size());
+
+        reregistration.getValue().run();
+        verify(eurekaClientService, times(2)).registerInstance(instance);
+        assertEquals(2, lifecycleManager.getRunningInstances().size());
+        assertEquals(LifecycleJournal.Type.REGISTERED, journal.forInstance(instance.getId(), 1).getFirst().type());
+        assertEquals(LifecycleJournal.Type.STATUS_DRIFT, journal.forInstance(drifted.getId(), 1).getFirst().type());
+    }
+
+    @Test
+    void reconcile_recentRegistration_skippedWithinGrace() {
+        lifecycleManager.startLifecycle(instance);
+        RegistryCache empty = new RegistryCache();
+        empty.replace(new RegistryCache.Fetch(List.of(), ""));
+
+        LifecycleManager.Drift drift = lifecycleManager.reconcile(empty, System.currentTimeMillis() - 60_000, 10);
+
+        assertEquals(new LifecycleManager.Drift(0, 0, 0), drift);
+        verify(scheduler, never()).schedule(any(), anyLong(), any());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LifecycleSchedulerTest {
+
+    @Test
+    void phaseDelay_executorTiming_spreadsKeysOverPeriod() {
+        LifecycleScheduler scheduler = new LifecycleScheduler("platform", 1, 10, "executor", 100, 64,
+                new SimpleMeterRegistry());
+        try {
+            Set<Long> seconds = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                long delay = scheduler.phaseDelayMillis("host-" + i + ":SERVICE:8080", 20_000);
+                assertTrue(delay >= 0 && delay < 20_000, "delay=" + delay);
+                seconds.add(delay / 1000);
+            }
+            // Ohne Phase lägen alle Heartbeats in derselben Sekunde
+            assertTrue(seconds.size() > 15, "nur " + seconds.size() + " verschiedene Sekunden");
+
+            long first = scheduler.phaseDelayMillis("host:SERVICE:8080", 20_000);
+            long again = scheduler.phaseDelayMillis("host:SERVICE:8080", 20_000);
+            assertTrue(Math.floorMod(first - again, 20_000) < 1_000);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistryCacheTest {
+
+    private static RegistryCache.Fetch parse(String json) throws Exception {
+        return RegistryCache.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parse_readsArraysSingleElementsAndOverride() throws Exception {
+        RegistryCache.Fetch fetch = parse("""
+                {"applications":{"apps__hashcode":"OUT_OF_SERVICE_1_UP_2_","application":[
+                  {"name":"A","instance":[{"instanceId":"h1:a:80","app":"A","status":"UP","overriddenStatus":"UNKNOWN"},
+                                          {"instanceId":"h2:a:80","app":"A","status":"UP"}]},
+                  {"name":"B","instance":{"instanceId":"h1:b:80","status":"OUT_OF_SERVICE","overriddenStatus":"OUT_OF_SERVICE"}}]}}
+                """);
+
+        assertEquals("OUT_OF_SERVICE_1_UP_2_", fetch.appsHashCode());
+        assertEquals(List.of("A/h1:a:80", "A/h2:a:80", "B/h1:b:80"),
+                fetch.changes().stream().map(RegistryCache.Change::key).toList());
+
+        RegistryCache cache = new RegistryCache();
+        cache.replace(fetch);
+        assertFalse(cache.get("A/h1:a:80").isOverridden());
+        assertTrue(cache.get("B/h1:b:80").isOverridden());
+        assertEquals(fetch.appsHashCode(), RegistryCache.reconcileHashCode(List.of(
+                cache.get("A/h1:a:80"), cache.get("A/h2:a:80"), cache.get("B/h1:b:80"))));
+    }
+
+    @Test
+    void apply_deltaWithMatchingHash_staysComplete() throws Exception {
+        RegistryCache cache = new RegistryCache();
+        cache.replace(parse("""
+                {"applications":{"application":[{"name":"A","instance":[
+                  {"instanceId":"1","status":"UP"},{"instanceId":"2","status":"UP"}]}]}}
+                """));
+
+        assertTrue(cache.apply(parse("""
+                {"applications":{"apps__hashcode":"DOWN_1_UP_1_","application":[{"name":"A","instance":[
+                  {"instanceId":"1","status":"DOWN","actionType":"MODIFIED"},
+                  {"instanceId":"2","status":"UP","actionType":"DELETED"},
+                  {"instanceId":"3","status":"UP","actionType":"ADDED"}]}]}}
+                """)));
+
+        assertEquals(2, cache.size());
+        assertEquals("DOWN", cache.get("A/1").status());
+        assertNull(cache.get("A/2"));
+    }
+
+    @Test
+    void apply_hashMismatchAfterEurekaRestart_requiresFullFetch() throws Exception {
+        RegistryCache cache = new RegistryCache();
+        cache.replace(parse("""
+                {"applications":{"application":[{"name":"A","instance":[{"instanceId":"1","status":"UP"}]}]}}
+                """));
+
+        assertFalse(cache.apply(parse("{\"applications\":{\"apps__hashcode\":\"\",\"application\":[]}}")));
+        assertFalse(cache.isComplete());
+    }
+
+    @Test
+    void parse_emptyBodyOrMissingApplications_fails() {
+        assertThrows(IOException.class, () -> RegistryCache.parse(new byte[0]));
+        assertThrows(IOException.class, () -> parse("{}"));
+    }
+}
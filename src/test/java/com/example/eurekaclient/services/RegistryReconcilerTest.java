@@ -0,0 +1,81 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RegistryReconcilerTest {
+
+    private final EurekaClientService eurekaClientService = mock(EurekaClientService.class);
+    private final LifecycleManager lifecycleManager = mock(LifecycleManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RegistryReconciler reconciler = new RegistryReconciler(eurekaClientService, lifecycleManager, meterRegistry);
+
+    private static RegistryCache.Fetch fetch(String hash, RegistryCache.Change... changes) {
+        return new RegistryCache.Fetch(List.of(changes), hash);
+    }
+
+    private static RegistryCache.Change up(String key) {
+        return new RegistryCache.Change(key, new RegistryCache.Entry("UP", null), RegistryCache.Action.ADDED);
+    }
+
+    @Test
+    void firstRunFull_thenDeltaOnly() {
+        when(eurekaClientService.fetchRegistry(false)).thenReturn(fetch("UP_1_", up("A/1")));
+        when(eurekaClientService.fetchRegistry(true)).thenReturn(fetch("UP_1_"));
+        when(lifecycleManager.reconcile(any(), anyLong(), anyInt())).thenReturn(new LifecycleManager.Drift(1, 0, 0));
+
+        reconciler.reconcile();
+        reconciler.reconcile();
+
+        verify(eurekaClientService, times(1)).fetchRegistry(false);
+        verify(eurekaClientService, times(1)).fetchRegistry(true);
+        assertEquals(1, meterRegistry.get("eureka_reconcile_duration").tag("fetch", "full").timer().count());
+        assertEquals(1, meterRegistry.get("eureka_reconcile_duration").tag("fetch", "delta").timer().count());
+        assertEquals(1.0, meterRegistry.get("eureka_reconcile_registry_instances").gauge().value());
+    }
+
+    @Test
+    void deltaHashMismatch_refetchesFullAndPublishesDrift() {
+        when(eurekaClientService.fetchRegistry(false)).thenReturn(fetch("UP_1_", up("A/1")), fetch(""));
+        when(eurekaClientService.fetchRegistry(true)).thenReturn(fetch(""));
+        when(lifecycleManager.reconcile(any(), anyLong(), anyInt()))
+                .thenReturn(new LifecycleManager.Drift(1, 0, 0), new LifecycleManager.Drift(1, 1, 0));
+
+        reconciler.reconcile();
+        LifecycleManager.Drift drift = reconciler.reconcile();
+
+        assertEquals(1, drift.missing());
+        verify(eurekaClientService, times(2)).fetchRegistry(false);
+        assertEquals(1.0, meterRegistry.get("eureka_reconcile_drift_total").tag("type", "missing").counter().count());
+        assertEquals(1.0, meterRegistry.get("eureka_reconcile_drift").tag("type", "missing").gauge().value());
+        assertEquals(0.0, meterRegistry.get("eureka_reconcile_registry_instances").gauge().value());
+    }
+
+    @Test
+    void eurekaUnavailable_noReconcile() {
+        when(eurekaClientService.fetchRegistry(false)).thenReturn(null);
+
+        assertNull(reconciler.reconcile());
+        verify(lifecycleManager, never()).reconcile(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void failedDelta_keepsPreviousRegistryAndSkipsReconcile() {
+        when(eurekaClientService.fetchRegistry(false)).thenReturn(fetch("UP_1_", up("A/1")));
+        when(eurekaClientService.fetchRegistry(true)).thenReturn(null);
+        when(lifecycleManager.reconcile(any(), anyLong(), anyInt())).thenReturn(new LifecycleManager.Drift(1, 0, 0));
+
+        reconciler.reconcile();
+        assertNull(reconciler.reconcile());
+
+        verify(lifecycleManager, times(1)).reconcile(any(), anyLong(), anyInt());
+        verify(eurekaClientService, times(1)).fetchRegistry(false);
+        assertEquals(1.0, meterRegistry.get("eureka_reconcile_registry_instances").gauge().value());
+    }
+}
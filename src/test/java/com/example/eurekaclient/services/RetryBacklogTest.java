@@ -0,0 +1,59 @@
+package com.example.eurekaclient.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBacklogTest {
+
+    private final RetryBacklog backlog = new RetryBacklog(2);
+
+    @Test
+    void park_sameInstance_keepsOneEntry() {
+        assertEquals(RetryBacklog.Outcome.PARKED, backlog.park(1, false, () -> {}, () -> {}));
+        assertEquals(RetryBacklog.Outcome.MERGED, backlog.park(1, false, () -> {}, () -> {}));
+
+        assertEquals(1, backlog.size());
+    }
+
+    @Test
+    void park_full_shedsHeartbeatAndEvictsForRegistration() {
+        Runnable registration = () -> {};
+        AtomicInteger evicted = new AtomicInteger();
+        backlog.park(1, false, () -> {}, () -> evicted.addAndGet(1));
+        backlog.park(2, false, () -> {}, () -> evicted.addAndGet(2));
+
+        assertEquals(RetryBacklog.Outcome.SHED, backlog.park(3, false, () -> {}, () -> {}));
+        assertEquals(RetryBacklog.Outcome.PARKED, backlog.park(4, true, registration, () -> {}));
+
+        assertEquals(1, evicted.get());
+        assertEquals(2, backlog.size());
+        assertEquals(2, backlog.shedCount());
+        assertEquals(registration, backlog.drain(10).get(1));
+    }
+
+    @Test
+    void park_fullOfRegistrations_neverShedsRegistration() {
+        backlog.park(1, true, () -> {}, () -> {});
+        backlog.park(2, true, () -> {}, () -> {});
+
+        assertEquals(RetryBacklog.Outcome.PARKED, backlog.park(3, true, () -> {}, () -> {}));
+        assertEquals(RetryBacklog.Outcome.SHED, backlog.park(4, false, () -> {}, () -> {}));
+
+        assertEquals(3, backlog.size());
+        assertEquals(1, backlog.shedCount());
+    }
+
+    @Test
+    void park_registrationNotReplacedByHeartbeat() {
+        Runnable registration = () -> {};
+        backlog.park(1, true, registration, () -> {});
+        backlog.park(1, false, () -> {}, () -> {});
+
+        assertEquals(List.of(registration), backlog.drain(10));
+        assertEquals(0, backlog.size());
+    }
+}
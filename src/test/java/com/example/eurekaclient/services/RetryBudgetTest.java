@@ -0,0 +1,39 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryWithdraw_limitedToRatioOfFirstAttempts() {
+        RetryBudget budget = new RetryBudget(0.2, 60, 0, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        int granted = 0;
+        while (budget.tryWithdraw()) {
+            granted++;
+        }
+
+        assertEquals(20, granted);
+        assertEquals(1.0, meterRegistry.counter("eureka_retry_budget_exhausted_total").count());
+    }
+
+    @Test
+    void tryWithdraw_minimumAllowsRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0.2, 60, 1, meterRegistry);
+
+        int granted = 0;
+        while (budget.tryWithdraw()) {
+            granted++;
+        }
+
+        assertEquals(60, granted);
+    }
+}
@@ -2,6 +2,9 @@ package com.example.eurekaclient.services;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ServiceInstanceStoreTest {
@@ -16,6 +19,17 @@ class ServiceInstanceStoreTest {
         assertNotNull(instance.getId());
     }
 
+    @Test
+    void getInstances_sortedById() {
+        ServiceInstanceStore store = new ServiceInstanceStore();
+        for (long id : new long[]{300, 7, 42, 1_000, 1}) {
+            store.save(TestData.instance().setId(id).setServiceName("SERVICE-" + id));
+        }
+
+        assertEquals(List.of(1L, 7L, 42L, 300L, 1_000L),
+                store.getInstances().stream().map(ServiceInstance::getId).toList());
+    }
+
     @Test
     void findByServiceName_caseInsensitive() {
         ServiceInstanceStore store = new ServiceInstanceStore();
@@ -25,4 +39,67 @@ class ServiceInstanceStoreTest {
 
         assertNotNull(store.findByServiceName("test-service"));
     }
+
+    @Test
+    void save_sameServiceName_replacesExisting() {
+        ServiceInstanceStore store = new ServiceInstanceStore();
+        ServiceInstance first = TestData.instance().setId(null);
+        ServiceInstance second = TestData.instance().setId(null).setServiceName("test-service").setHostName("other");
+
+        store.save(first);
+        store.save(second);
+
+        assertEquals(1, store.size());
+        assertSame(second, store.findByServiceName("TEST-SERVICE"));
+        assertNull(store.findById(first.getId()));
+        assertNull(store.findByServiceNameAndHostNameAndHttpPort("TEST-SERVICE", "localhost", 8080));
+    }
+
+    @Test
+    void save_changedHost_reindexesEndpoint() {
+        ServiceInstanceStore store = new ServiceInstanceStore();
+        ServiceInstance instance = TestData.instance();
+        store.save(instance);
+
+        instance.setHostName("new-host");
+        store.save(instance);
+
+        assertNull(store.findByServiceNameAndHostNameAndHttpPort("TEST-SERVICE", "localhost", 8080));
+        assertSame(instance, store.findByServiceNameAndHostNameAndHttpPort("test-service", "NEW-HOST", 8080));
+        assertEquals(1, store.getInstances().size());
+    }
+
+    @Test
+    void clear_removesAllAndNotifiesListeners() {
+        ServiceInstanceStore store = new ServiceInstanceStore();
+        List<ServiceInstance> notified = new ArrayList<>();
+        store.save(TestData.instance());
+        store.addChangeListener(notified::add);
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertTrue(store.getInstances().isEmpty());
+        assertEquals(1, notified.size());
+    }
+
+    @Test
+    void applyBatch_removesThenSavesAndNotifiesListeners() {
+        ServiceInstanceStore store = new ServiceInstanceStore();
+        ServiceInstance removed = TestData.instance();
+        store.save(removed);
+        List<ServiceInstance> notified = new ArrayList<>();
+        store.addChangeListener(notified::add);
+        ServiceInstance added = TestData.instance().setId(null).setServiceName("NEW-SERVICE");
+        ServiceInstance sameName = TestData.instance().setId(null).setHostName("other");
+
+        store.applyBatch(List.of(added, sameName), List.of(removed));
+
+        assertEquals(2, store.size());
+        assertNotNull(added.getId());
+        assertNull(store.findById(removed.getId()));
+        assertSame(sameName, store.findByServiceName("TEST-SERVICE"));
+        assertSame(added, store.findByServiceNameAndHostNameAndHttpPort("new-service", "localhost", 8080));
+        assertEquals(List.of(removed, added, sameName), notified);
+    }
 }
@@ -0,0 +1,65 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ServicesFileWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private final StartupService startupService = mock(StartupService.class);
+    private final IncrementalRefreshService refreshService = mock(IncrementalRefreshService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServicesFileWatcher watcher;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws Exception {
+        file = dir.resolve("services.json");
+        Files.writeString(file, "[]");
+
+        when(startupService.readServices()).thenReturn(List.of());
+        when(refreshService.apply(any())).thenReturn(new IncrementalRefreshService.RefreshResult(0, 0, 0, 0, 0));
+
+        watcher = new ServicesFileWatcher(startupService, refreshService, meterRegistry);
+        ReflectionTestUtils.setField(watcher, "storeJsonResource", new FileSystemResource(file));
+        ReflectionTestUtils.setField(watcher, "enabled", true);
+        ReflectionTestUtils.setField(watcher, "debounceMs", 50L);
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.stop();
+    }
+
+    @Test
+    void reload_changedContent_appliesOnce() throws Exception {
+        Files.writeString(file, "[{\"serviceName\":\"A\"}]");
+
+        verify(refreshService, timeout(15_000)).apply(any());
+        assertEquals(1.0, meterRegistry.counter("eureka_services_reload_total").count());
+    }
+
+    @Test
+    void reload_sameContent_isSkipped() {
+        watcher.reload();
+
+        verify(refreshService, never()).apply(any());
+        assertEquals(1.0, meterRegistry.counter("eureka_services_reload_skipped_total").count());
+    }
+}
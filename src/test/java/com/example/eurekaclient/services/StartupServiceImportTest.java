@@ -0,0 +1,83 @@
+package com.example.eurekaclient.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupServiceImportTest {
+
+    private final ServiceInstanceStore store = new ServiceInstanceStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StartupService startupService;
+
+    @BeforeEach
+    void setup() {
+        startupService = new StartupService(store, meterRegistry);
+        ReflectionTestUtils.setField(startupService, "batchSize", 2);
+    }
+
+    private void useJson(String json) {
+        ReflectionTestUtils.setField(startupService, "storeJsonResource",
+                new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void loadAndImportServices_importsInBatches() throws Exception {
+        useJson("""
+                [{"serviceName":"A","hostName":"h","httpPort":1},
+                 {"serviceName":"B","hostName":"h","httpPort":2},
+                 {"serviceName":"C","hostName":"h","httpPort":3}]""");
+        List<Integer> batchSizes = new ArrayList<>();
+
+        startupService.loadAndImportServices(batch -> batchSizes.add(batch.size()));
+
+        assertEquals(List.of(2, 1), batchSizes);
+        assertEquals(3, store.size());
+        assertEquals(3.0, meterRegistry.counter("eureka_services_import_entries_total").count());
+    }
+
+    @Test
+    void loadAndImportServices_duplicateInBatch_updatesFirstEntry() throws Exception {
+        useJson("""
+                [{"serviceName":"A","hostName":"h","httpPort":1,"ipAddr":"10.0.0.1"},
+                 {"serviceName":"A","hostName":"h","httpPort":1,"ipAddr":"10.0.0.2"}]""");
+
+        startupService.loadAndImportServices();
+
+        assertEquals(1, store.size());
+        assertEquals("10.0.0.2", store.findByServiceName("A").getIpAddr());
+    }
+
+    @Test
+    void loadAndImportServices_invalidEntry_keepsPreviousBatches() throws Exception {
+        useJson("""
+                [{"serviceName":"A","hostName":"h","httpPort":1},
+                 {"serviceName":"B","hostName":"h","httpPort":2},
+                 {"serviceName":"C","hostName":"h","httpPort":""" + "\"x\"}]");
+
+        startupService.loadAndImportServices();
+
+        assertEquals(2, store.size());
+        assertNull(store.findByServiceName("C"));
+    }
+
+    @Test
+    void readServices_nonUtf8Encoding_isDetected() throws Exception {
+        ReflectionTestUtils.setField(startupService, "storeJsonResource",
+                new ByteArrayResource("[{\"serviceName\":\"Zähler\"}]".getBytes(StandardCharsets.UTF_16BE)));
+
+        List<ServiceInstance> instances = startupService.readServices();
+
+        assertEquals(1, instances.size());
+        assertEquals("Zähler", instances.getFirst().getServiceName());
+        assertEquals(0, store.size());
+    }
+}
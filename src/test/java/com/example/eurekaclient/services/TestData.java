@@ -1,7 +1,30 @@
 package com.example.eurekaclient.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+
 public class TestData {
 
+    /**
+     * Peer-Pool ohne Spring, mit denselben Werten wie in application.properties.
+     */
+    public static EurekaPeerPool peerPool(RestClient restClient, String serverUrls, MeterRegistry meterRegistry) {
+        EurekaPeerPool pool = new EurekaPeerPool(restClient, serverUrls, meterRegistry);
+        ReflectionTestUtils.setField(pool, "alpha", 0.3);
+        ReflectionTestUtils.setField(pool, "errorPenaltyMillis", 1000.0);
+        ReflectionTestUtils.setField(pool, "failureThreshold", 3);
+        ReflectionTestUtils.setField(pool, "probeIntervalMs", 10_000L);
+        ReflectionTestUtils.setField(pool, "circuitWindowSize", 20);
+        ReflectionTestUtils.setField(pool, "circuitMinCalls", 10);
+        ReflectionTestUtils.setField(pool, "circuitFailureRate", 0.5);
+        ReflectionTestUtils.setField(pool, "circuitSlowCallMs", 2000L);
+        ReflectionTestUtils.setField(pool, "circuitSlowCallRate", 0.8);
+        ReflectionTestUtils.setField(pool, "circuitOpenMs", 30_000L);
+        ReflectionTestUtils.setField(pool, "circuitHalfOpenCalls", 3);
+        return pool;
+    }
+
     public static ServiceInstance instance() {
         return ServiceInstance.builder()
                 .id(1L)
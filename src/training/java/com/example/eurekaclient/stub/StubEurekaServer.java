@@ -0,0 +1,336 @@
+package com.example.eurekaclient.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Eingebetteter Stub der Eureka-Endpunkte, die {@code EurekaClientService} nutzt:
+ * {@code POST apps/{app}}, {@code PUT} und {@code DELETE apps/{app}/{id}} sowie {@code GET apps/} und
+ * {@code GET apps/delta} (JSON mit {@code apps__hashcode}; das Delta ist immer leer).
+ * <p>
+ * Fehlerinjektion zur Laufzeit: Latenzverteilung, Fehlerquote (503), 404-Quote für Heartbeats
+ * (Lease gilt als verfallen) und kompletter Ausfall (Port geschlossen, Verbindungen werden abgelehnt).
+ * <p>
+ * Für jeden Heartbeat wird die Verspätung gegenüber dem erwarteten Intervall erfasst.
+ * <p>
+ * Liegt in {@code src/training/java}: ohne Profil nur Testquelle (Last- und Native-Test), mit {@code -Ptraining}
+ * Teil des Jars für den Trainingslauf des AOT-Caches ({@code com.example.eurekaclient.training.TrainingRun}).
+ * Das reguläre Jar enthält den Stub nicht.
+ */
+public final class StubEurekaServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StubEurekaServer.class);
+
+    private static final String CONTEXT = "/eureka/apps/";
+    private static final Pattern INSTANCE_ID = Pattern.compile("<instanceId>(.*?)</instanceId>");
+    private static final Pattern STATUS = Pattern.compile("<status>(.*?)</status>");
+
+    public enum Latency { FIXED, UNIFORM, EXPONENTIAL }
+
+    private final int port;
+    private final long heartbeatIntervalNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile HttpServer server;
+
+    private volatile Latency latency = Latency.FIXED;
+    private volatile long latencyMillis;
+    private volatile double errorRate;
+    private volatile double notFoundRate;
+
+    private final Map<String, Long> leases = new ConcurrentHashMap<>();
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private final LongAdder registrations = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+    private final LongAdder deregistrations = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedNotFound = new LongAdder();
+    private volatile DistributionSummary lateness;
+
+    private StubEurekaServer(int port, long heartbeatInterval, TimeUnit unit) throws IOException {
+        this.heartbeatIntervalNanos = unit.toNanos(heartbeatInterval);
+        this.server = bind(port);
+        this.port = server.getAddress().getPort();
+        resetLateness();
+    }
+
+    /**
+     * Startet den Stub; Port 0 wählt einen freien Port.
+     */
+    public static StubEurekaServer start(int port, long heartbeatInterval, TimeUnit unit) throws IOException {
+        StubEurekaServer stub = new StubEurekaServer(port, heartbeatInterval, unit);
+        log.info("[Stub] Eureka-Stub läuft auf Port {}", stub.port);
+        return stub;
+    }
+
+    private HttpServer bind(int port) throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        httpServer.createContext(CONTEXT, this::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        return httpServer;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port + CONTEXT;
+    }
+
+    public StubEurekaServer latency(Latency distribution, long millis) {
+        this.latency = distribution;
+        this.latencyMillis = millis;
+        return this;
+    }
+
+    public StubEurekaServer errorRate(double rate) {
+        this.errorRate = rate;
+        return this;
+    }
+
+    public StubEurekaServer notFoundRate(double rate) {
+        this.notFoundRate = rate;
+        return this;
+    }
+
+    /**
+     * Kompletter Ausfall: der Port wird geschlossen, Leases bleiben wie bei einem echten Eureka-Neustart
+     * mit Peer-Replikation erhalten.
+     */
+    public synchronized void outage(boolean down) throws IOException {
+        if (down && server != null) {
+            server.stop(0);
+            server = null;
+            log.info("[Stub] Ausfall gestartet");
+        } else if (!down && server == null) {
+            server = bind(port);
+            log.info("[Stub] Ausfall beendet");
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath().substring(CONTEXT.length());
+            String[] segments = path.split("/");
+            String method = exchange.getRequestMethod();
+
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.increment();
+                respond(exchange, 503);
+                return;
+            }
+
+            if ("GET".equals(method)) {
+                byte[] body = applications("delta".equals(path)).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+            if ("POST".equals(method) && segments.length == 1) {
+                register(exchange, decode(segments[0]));
+                return;
+            }
+            if (segments.length == 2) {
+                String key = decode(segments[0]) + "/" + decode(segments[1]);
+                if ("PUT".equals(method)) {
+                    renew(exchange, key);
+                    return;
+                }
+                if ("DELETE".equals(method)) {
+                    deregistrations.increment();
+                    statuses.remove(key);
+                    respond(exchange, leases.remove(key) != null ? 200 : 404);
+                    return;
+                }
+            }
+            respond(exchange, 405);
+        }
+    }
+
+    private void register(HttpExchange exchange, String app) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Matcher matcher = INSTANCE_ID.matcher(body);
+        if (!matcher.find()) {
+            respond(exchange, 400);
+            return;
+        }
+        String key = app + "/" + matcher.group(1);
+        Matcher status = STATUS.matcher(body);
+        statuses.put(key, status.find() && !status.group(1).isBlank() ? status.group(1) : "UP");
+        leases.put(key, System.nanoTime());
+        registrations.increment();
+        respond(exchange, 204);
+    }
+
+    private void renew(HttpExchange exchange, String key) throws IOException {
+        if (notFoundRate > 0 && ThreadLocalRandom.current().nextDouble() < notFoundRate) {
+            leases.remove(key);
+            statuses.remove(key);
+            injectedNotFound.increment();
+            respond(exchange, 404);
+            return;
+        }
+        long now = System.nanoTime();
+        Long[] previous = new Long[1];
+        leases.computeIfPresent(key, (k, last) -> {
+            previous[0] = last;
+            return now;
+        });
+        if (previous[0] == null) {
+            respond(exchange, 404);
+            return;
+        }
+        heartbeats.increment();
+        long late = now - previous[0] - heartbeatIntervalNanos;
+        lateness.record(late > 0 ? TimeUnit.NANOSECONDS.toMillis(late) : 0);
+        respond(exchange, 200);
+    }
+
+    /**
+     * Registry im JSON-Format von Eureka, gruppiert nach App. Das Delta enthält keine Instanzen, nur den Hashcode,
+     * an dem der Client erkennt, ob sein Abbild noch stimmt.
+     */
+    private String applications(boolean delta) {
+        Map<String, StringBuilder> apps = new TreeMap<>();
+        Map<String, Integer> counts = new TreeMap<>();
+        statuses.forEach((key, status) -> {
+            counts.merge(status, 1, Integer::sum);
+            if (delta) {
+                return;
+            }
+            int slash = key.indexOf('/');
+            StringBuilder instances = apps.computeIfAbsent(key.substring(0, slash), app -> new StringBuilder());
+            instances.append(instances.isEmpty() ? "" : ",")
+                    .append("{\"instanceId\":\"").append(key.substring(slash + 1))
+                    .append("\",\"app\":\"").append(key, 0, slash)
+                    .append("\",\"status\":\"").append(status)
+                    .append("\",\"overriddenStatus\":\"UNKNOWN\",\"actionType\":\"ADDED\"}");
+        });
+        StringBuilder hash = new StringBuilder();
+        counts.forEach((status, count) -> hash.append(status).append('_').append(count).append('_'));
+
+        StringBuilder json = new StringBuilder("{\"applications\":{\"versions__delta\":\"1\",\"apps__hashcode\":\"")
+                .append(hash).append("\",\"application\":[");
+        boolean first = true;
+        for (Map.Entry<String, StringBuilder> app : apps.entrySet()) {
+            json.append(first ? "" : ",").append("{\"name\":\"").append(app.getKey())
+                    .append("\",\"instance\":[").append(app.getValue()).append("]}");
+            first = false;
+        }
+        return json.append("]}}").toString();
+    }
+
+    /**
+     * Eureka-Neustart ohne Peer-Replikation: alle Leases sind verloren, der Port bleibt offen.
+     */
+    public void forgetAll() {
+        leases.clear();
+        statuses.clear();
+        log.info("[Stub] Registry geleert");
+    }
+
+    private void delay() {
+        long millis = switch (latency) {
+            case FIXED -> latencyMillis;
+            case UNIFORM -> latencyMillis > 0 ? ThreadLocalRandom.current().nextLong(2 * latencyMillis + 1) : 0;
+            case EXPONENTIAL -> (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * latencyMillis);
+        };
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static String decode(String segment) {
+        return URLDecoder.decode(segment, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Verspätung der Heartbeats in ms gegenüber dem Intervall, seit dem letzten {@link #resetLateness()}.
+     */
+    public DistributionSummary lateness() {
+        return lateness;
+    }
+
+    public void resetLateness() {
+        lateness = DistributionSummary.builder("stub_heartbeat_lateness")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Anzahl Instanzen, deren letzter Heartbeat (oder Registrierung) nach {@code sinceNanos} lag.
+     */
+    public int renewedSince(long sinceNanos) {
+        int count = 0;
+        for (long last : leases.values()) {
+            if (last - sinceNanos > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int leaseCount() {
+        return leases.size();
+    }
+
+    public long registrations() {
+        return registrations.sum();
+    }
+
+    public long heartbeats() {
+        return heartbeats.sum();
+    }
+
+    public long deregistrations() {
+        return deregistrations.sum();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    public long injectedNotFound() {
+        return injectedNotFound.sum();
+    }
+
+    @Override
+    public void close() {
+        HttpServer current = server;
+        if (current != null) {
+            current.stop(0);
+        }
+        executor.shutdownNow();
+    }
+}
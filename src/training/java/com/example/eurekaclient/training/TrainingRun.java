@@ -0,0 +1,169 @@
+package com.example.eurekaclient.training;
+
+import com.example.eurekaclient.Application;
+import com.example.eurekaclient.services.LifecycleManager;
+import com.example.eurekaclient.stub.StubEurekaServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trainingslauf für den JDK-AOT-Cache ({@code -XX:AOTCacheOutput}).
+ * <p>
+ * Startet die Anwendung gegen einen lokalen {@link StubEurekaServer} und eine synthetische
+ * services.json, wartet auf Registrierungen und Heartbeats aller Instanzen, ruft Web-UI, REST-API, OpenAPI und die
+ * Actuator-Endpunkte auf und fährt anschließend regulär herunter (inklusive Deregistrierung). Beim Beenden schreibt
+ * die JVM den Cache mit allen dabei geladenen und gelinkten Klassen.
+ * <p>
+ * Umfang über System-Properties: {@code training.instances}, {@code training.heartbeats},
+ * {@code training.web-rounds}, {@code training.timeout-seconds}.
+ * <p>
+ * Nur im Jar, wenn mit {@code -Ptraining} gebaut, und nur über die eigene Main-Klasse erreichbar
+ * ({@code java -cp app.jar com.example.eurekaclient.training.TrainingRun}); {@code Application} kennt den
+ * Trainingslauf nicht.
+ */
+@Slf4j
+public final class TrainingRun {
+
+    private static final List<String> WEB_PATHS = List.of(
+            "/", "/clients", "/instances/configured", "/instances/running",
+            "/actuator/health", "/actuator/info", "/actuator/metrics", "/actuator/metrics/eureka_registrations_total",
+            "/actuator/prometheus", "/actuator/lifecycle", "/actuator/journal",
+            "/v3/api-docs", "/swagger-ui/index.html");
+
+    private final int instances = Integer.getInteger("training.instances", 20);
+    private final int heartbeats = Integer.getInteger("training.heartbeats", 3);
+    private final int webRounds = Integer.getInteger("training.web-rounds", 50);
+    private final long timeoutSeconds = Long.getLong("training.timeout-seconds", 120);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private int webFailures;
+
+    private TrainingRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new TrainingRun().execute(Application.class, args));
+    }
+
+    private int execute(Class<?> application, String[] args) throws Exception {
+        Path servicesJson = Files.createTempFile("training-services", ".json");
+        try (StubEurekaServer stub = StubEurekaServer.start(0, 1, TimeUnit.SECONDS)) {
+            writeServices(servicesJson);
+            configure(stub, servicesJson);
+
+            log.info("[Training] Starte Trainingslauf mit {} Instanzen gegen {}", instances, stub.baseUrl());
+            ConfigurableApplicationContext context = SpringApplication.run(application, args);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LifecycleManager lifecycleManager = context.getBean(LifecycleManager.class);
+
+            boolean ready = awaitHeartbeats(stub);
+            long webStart = System.nanoTime();
+            exerciseWeb(port);
+            long webMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - webStart);
+
+            log.info("[Training] Erste Registrierung nach {} ms, {} Registrierungen, {} Heartbeats, "
+                            + "{} Web-Runden in {} ms ({} fehlgeschlagen)",
+                    lifecycleManager.firstRegistrationMillis(), stub.registrations(), stub.heartbeats(),
+                    webRounds, webMillis, webFailures);
+
+            // Regulärer Shutdown, damit auch der Deregistrierungspfad im Cache landet
+            int exitCode = SpringApplication.exit(context, () -> ready && webFailures == 0 ? 0 : 1);
+            log.info("[Training] Beendet mit Exit-Code {} ({} Deregistrierungen)", exitCode, stub.deregistrations());
+            return exitCode;
+        } finally {
+            Files.deleteIfExists(servicesJson);
+        }
+    }
+
+    private void writeServices(Path file) throws IOException {
+        List<Map<String, Object>> services = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            Map<String, Object> service = new LinkedHashMap<>();
+            service.put("serviceName", "TRAINING-SERVICE-" + i);
+            service.put("hostName", "training-" + i);
+            service.put("httpPort", 8080);
+            service.put("securePort", 8443);
+            service.put("ipAddr", "127.0.0." + (i % 254 + 1));
+            service.put("dataCenterInfoName", "MyOwn");
+            service.put("status", "UP");
+            service.put("sslPreferred", i % 2 == 0);
+            services.add(service);
+        }
+        new ObjectMapper().writeValue(file.toFile(), services);
+    }
+
+    /**
+     * System-Properties haben Vorrang vor {@code spring.config.location}, der Trainingslauf nutzt also dieselbe
+     * Konfiguration wie der Container und überschreibt nur Eureka-URL, services.json, Port und Intervalle.
+     */
+    private static void configure(StubEurekaServer stub, Path servicesJson) {
+        System.setProperty("EUREKA_SERVER_URL", stub.baseUrl());
+        System.setProperty("store.json.path", "file:" + servicesJson.toAbsolutePath());
+        System.setProperty("store.json.watch.enabled", "false");
+        System.setProperty("server.port", "0");
+        System.setProperty("lifecycle.heartbeat.interval.seconds", "1");
+        System.setProperty("lifecycle.warm-restart.enabled", "false");
+        System.setProperty("lifecycle.journal.spill-file", "");
+        System.setProperty("management.endpoints.web.exposure.include",
+                "health,info,metrics,prometheus,refresh,lifecycle,journal");
+    }
+
+    private boolean awaitHeartbeats(StubEurekaServer stub) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        long expected = (long) instances * heartbeats;
+        while (stub.leaseCount() < instances || stub.heartbeats() < expected) {
+            if (System.nanoTime() > deadline) {
+                log.warn("[Training] Nach {} s erst {} von {} Instanzen registriert und {} von {} Heartbeats",
+                        timeoutSeconds, stub.leaseCount(), instances, stub.heartbeats(), expected);
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        return true;
+    }
+
+    private void exerciseWeb(int port) throws InterruptedException {
+        String base = "http://127.0.0.1:" + port;
+        for (int round = 0; round < webRounds; round++) {
+            for (String path : WEB_PATHS) {
+                send(HttpRequest.newBuilder(URI.create(base + path)).GET());
+            }
+        }
+        // Validierung, Jackson-Deserialisierung und Neu-Registrierung über die REST-API
+        String update = "{\"serviceName\":\"TRAINING-SERVICE-0\",\"newHostName\":\"training-0\","
+                + "\"newIpAddress\":\"127.0.0.1\",\"httpPort\":8081,\"securePort\":8443,\"sslPreferred\":false}";
+        send(HttpRequest.newBuilder(URI.create(base + "/instances/update"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(update)));
+    }
+
+    private void send(HttpRequest.Builder request) throws InterruptedException {
+        HttpRequest built = request.timeout(Duration.ofSeconds(10)).build();
+        try {
+            HttpResponse<Void> response = httpClient.send(built, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 500) {
+                webFailures++;
+                log.warn("[Training] {} {} → {}", built.method(), built.uri().getPath(), response.statusCode());
+            }
+        } catch (IOException e) {
+            webFailures++;
+            log.warn("[Training] {} {} fehlgeschlagen: {}", built.method(), built.uri().getPath(), e.getMessage());
+        }
+    }
+}